@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.ref.Reference;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Memory footprint of a report run, compared to a budget configured in <code>allocation-budgets.properties</code>:
+ * <ul>
+ * <li>bytes allocated by every thread but the fixture server ones, which includes the report executor and the HTTP
+ * client threads,</li>
+ * <li>peak heap usage over the heap used before the run,</li>
+ * <li>heap still used after a GC while the report is reachable, like parsed documents kept in a field.</li>
+ * </ul>
+ */
+final class AllocationBudget {
+    /** Threads of the Jetty pool that serves fixtures, not part of the measured footprint. */
+    private static final String SERVER_THREAD_PREFIX = "qtp";
+
+    private static final long MB = 1024 * 1024;
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Measured footprint.
+     *
+     * @param allocatedBytes bytes allocated by every thread but the fixture server ones
+     * @param callerAllocatedBytes bytes allocated by the thread running the report
+     * @param peakHeapBytes peak heap usage over the heap used before the run
+     * @param retainedBytes heap still used after a GC, over the heap used before the run
+     */
+    record Footprint(long allocatedBytes, long callerAllocatedBytes, long peakHeapBytes, long retainedBytes) {
+        @Override
+        public String toString() {
+            return String.format(
+                    Locale.ROOT,
+                    "allocated %.1f MB (%.1f MB in calling thread), peak heap %.1f MB, retained %.1f MB",
+                    allocatedBytes / (double) MB,
+                    callerAllocatedBytes / (double) MB,
+                    peakHeapBytes / (double) MB,
+                    retainedBytes / (double) MB);
+        }
+    }
+
+    private final Properties budgets = new Properties();
+
+    /**
+     * Load budgets from <code>allocation-budgets.properties</code>, next to this class.
+     *
+     * @throws IOException if budgets cannot be read
+     */
+    AllocationBudget() throws IOException {
+        try (InputStream in = AllocationBudget.class.getResourceAsStream("allocation-budgets.properties")) {
+            budgets.load(in);
+        }
+    }
+
+    /**
+     * Measure the footprint of a run.
+     *
+     * @param run the run, returning what stays reachable afterwards, like the report
+     * @return the footprint
+     * @throws Exception if the run fails
+     */
+    static Footprint measure(Callable<?> run) throws Exception {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+
+        System.gc();
+        long heapBefore = usedHeap(heapPools);
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        Map<Long, Long> serverBefore = serverAllocations();
+        long totalBefore = THREADS.getTotalThreadAllocatedBytes();
+        long callerBefore = THREADS.getCurrentThreadAllocatedBytes();
+
+        Object result = run.call();
+
+        long callerAllocated = THREADS.getCurrentThreadAllocatedBytes() - callerBefore;
+        long totalAllocated = THREADS.getTotalThreadAllocatedBytes() - totalBefore;
+        long serverAllocated = 0;
+        for (Map.Entry<Long, Long> server : serverAllocations().entrySet()) {
+            serverAllocated += server.getValue() - serverBefore.getOrDefault(server.getKey(), 0L);
+        }
+        long peakHeap = heapPools.stream()
+                        .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                        .sum()
+                - heapBefore;
+
+        System.gc();
+        long retained = usedHeap(heapPools) - heapBefore;
+        Reference.reachabilityFence(result);
+
+        return new Footprint(totalAllocated - serverAllocated, callerAllocated, peakHeap, retained);
+    }
+
+    private static long usedHeap(List<MemoryPoolMXBean> heapPools) {
+        return heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+    }
+
+    private static Map<Long, Long> serverAllocations() {
+        Map<Long, Long> allocations = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith(SERVER_THREAD_PREFIX)) {
+                long allocated = THREADS.getThreadAllocatedBytes(thread.threadId());
+                if (allocated >= 0) {
+                    allocations.put(thread.threadId(), allocated);
+                }
+            }
+        }
+        return allocations;
+    }
+
+    /**
+     * Check a footprint against the budget of a report.
+     *
+     * @param goal the report goal, prefix of its budget properties
+     * @param footprint the measured footprint
+     * @return the budget overruns, empty if the report is within budget
+     */
+    List<String> check(String goal, Footprint footprint) {
+        return Stream.of(
+                        overrun(goal, "allocatedMegabytes", footprint.allocatedBytes()),
+                        overrun(goal, "peakHeapMegabytes", footprint.peakHeapBytes()),
+                        overrun(goal, "retainedMegabytes", footprint.retainedBytes()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private String overrun(String goal, String key, long bytes) {
+        String budget = budgets.getProperty(goal + '.' + key);
+        if (budget == null) {
+            return goal + '.' + key + " budget is not configured";
+        }
+        return bytes > Long.parseLong(budget.trim()) * MB ? goal + '.' + key + " exceeds " + budget.trim() : null;
+    }
+}
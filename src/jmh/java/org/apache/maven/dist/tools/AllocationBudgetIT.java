@@ -0,0 +1,361 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.apache.maven.dist.tools.committers.CommittersStatsReport;
+import org.apache.maven.dist.tools.committers.MLStats;
+import org.apache.maven.dist.tools.committers.MLStatsAnn;
+import org.apache.maven.dist.tools.committers.MLStatsCommits;
+import org.apache.maven.dist.tools.committers.MLStatsIssues;
+import org.apache.maven.dist.tools.committers.MLStatsVotes;
+import org.apache.maven.dist.tools.committers.MavenCommittersRepository;
+import org.apache.maven.dist.tools.index.DistCheckIndexPageReport;
+import org.apache.maven.dist.tools.jobs.branches.ListBranchesReport;
+import org.apache.maven.dist.tools.pgp.CheckPgpKeysReport;
+import org.apache.maven.dist.tools.site.DistCheckSiteReport;
+import org.apache.maven.dist.tools.source.DistCheckSourceReleaseReport;
+import org.apache.maven.doxia.sink.impl.Xhtml5BaseSink;
+import org.apache.maven.reporting.AbstractMavenReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.head;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allocation budget of every report, run in-process against local fixtures of its remote sites: fails when a change
+ * makes a report allocate or retain more memory than its budget in <code>allocation-budgets.properties</code>.
+ * Each report is run once to load classes, then measured on a second run.
+ * Measures depend on the JVM and its garbage collector, so this runs in the <code>jmh</code> profile only:
+ * <code>mvn -Pjmh verify</code>.
+ */
+class AllocationBudgetIT {
+    private static final int ARTIFACTS = 40;
+
+    private static final int REPOSITORIES = 20;
+
+    private static final String VERSION = "3.2.1";
+
+    private static final String LAST_ARTIFACT = "maven-artifact" + (ARTIFACTS - 1) + "-plugin";
+
+    private static final String REPO = "https://repo.maven.apache.org/maven2/org/apache/maven/plugins/";
+
+    @RegisterExtension
+    static WireMockExtension server = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().disableRequestJournal().http2PlainDisabled(true))
+            .build();
+
+    private static AllocationBudget budget;
+
+    @TempDir
+    File dir;
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @BeforeEach
+    void route() throws IOException {
+        if (budget == null) {
+            budget = new AllocationBudget();
+        }
+        System.setProperty(HttpRetry.ORIGIN_PROPERTY, server.baseUrl());
+    }
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(HttpRetry.ORIGIN_PROPERTY);
+    }
+
+    @Test
+    void testCheckSourceRelease() throws Exception {
+        stubRepository();
+        assertWithinBudget(
+                "check-source-release", LAST_ARTIFACT, () -> configure(new DistCheckSourceReleaseReport()));
+    }
+
+    @Test
+    void testCheckSite() throws Exception {
+        stubRepository();
+        assertWithinBudget("check-site", LAST_ARTIFACT, () -> {
+            DistCheckSiteReport report = configure(new DistCheckSiteReport(Map.of()));
+            set(report, "siteProbeMaxBytes", 262144);
+            return report;
+        });
+    }
+
+    @Test
+    void testCheckIndexPage() throws Exception {
+        stubRepository();
+        assertWithinBudget("check-index-page", LAST_ARTIFACT, () -> configure(new DistCheckIndexPageReport()));
+    }
+
+    @Test
+    void testCheckPgpKeys() throws Exception {
+        byte[] keys;
+        try (InputStream in = getClass().getResourceAsStream("pgp/KEYS")) {
+            keys = in.readAllBytes();
+        }
+        for (String url : new String[] {
+            CheckPgpKeysReport.EDIT_KEYS_1_URL,
+            CheckPgpKeysReport.PUBLISH_KEYS_2_URL,
+            CheckPgpKeysReport.DOWNLOAD_KEYS_3_URL
+        }) {
+            stub(url, keys);
+        }
+        assertWithinBudget("check-pgp-keys", "(3 keys)", () -> configure(new CheckPgpKeysReport()));
+    }
+
+    @Test
+    void testCommittersStats() throws Exception {
+        StringBuilder ids = new StringBuilder();
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < ARTIFACTS; i++) {
+            ids.append(i == 0 ? "" : ",").append("\"committer").append(i).append('"');
+            names.append(i == 0 ? "" : ",")
+                    .append("\"committer")
+                    .append(i)
+                    .append("\":\"Committer ")
+                    .append(i)
+                    .append('"');
+        }
+        stub(
+                "https://projects.apache.org/json/foundation/groups.json",
+                "{\"maven\":[" + ids + "],\"maven-pmc\":[\"committer0\"]}");
+        stub("https://projects.apache.org/json/foundation/people_name.json", "{" + names + "}");
+        server.stubFor(get(urlPathEqualTo("/lists.apache.org/api/stats.lua"))
+                .willReturn(ok("{\"firstYear\":2010,\"firstMonth\":1,\"lastYear\":2024,\"lastMonth\":5}")));
+
+        assertWithinBudget("committers-stats", "Committer " + (ARTIFACTS - 1), () -> {
+            Map<String, MLStats> mlStats = new LinkedHashMap<>();
+            mlStats.put("Commits", new MLStatsCommits());
+            mlStats.put("Issues", new MLStatsIssues());
+            mlStats.put("Votes", new MLStatsVotes());
+            mlStats.put("ANN", new MLStatsAnn());
+            // committers are loaded when the repository is injected
+            Constructor<MavenCommittersRepository> constructor =
+                    MavenCommittersRepository.class.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return configure(new CommittersStatsReport(mlStats, constructor.newInstance()));
+        });
+    }
+
+    @Test
+    void testListBranches() throws Exception {
+        StringBuilder gitbox = new StringBuilder("<html><body><div><h2>Apache Maven</h2><table><tbody>");
+        for (int i = 0; i < REPOSITORIES; i++) {
+            String repository = "maven-repository" + i;
+            gitbox.append("<tr><td><a href=\"/repos/asf?p=")
+                    .append(repository)
+                    .append(".git\">")
+                    .append(repository)
+                    .append(".git</a></td><td>Apache Maven repository</td></tr>");
+
+            StringBuilder jenkins = new StringBuilder("<html><body><table><tr id=\"job_master\"><td>master</td></tr>");
+            StringBuilder branches = new StringBuilder("{\"name\":\"master\"}");
+            for (int b = 0; b < 10; b++) {
+                jenkins.append("<tr id=\"job_feature-").append(b).append("\"><td>feature</td></tr>");
+                branches.append(",{\"name\":\"feature-").append(b).append("\"}");
+            }
+            stub(
+                    "https://ci-maven.apache.org/job/Maven/job/maven-box/job/" + repository,
+                    jenkins + "</table></body></html>");
+            stub(
+                    "https://github.com/apache/" + repository + "/branches/all?page=1",
+                    "{\"payload\":{\"current_page\":1,\"has_more\":false,\"per_page\":100,\"branches\":[" + branches
+                            + "]}}");
+            server.stubFor(head(urlEqualTo(HttpRetry.route(
+                                    "https://github.com/apache/" + repository + "/blob/master/.github/dependabot.yml")
+                            .substring(server.baseUrl().length())))
+                    .willReturn(ok()));
+        }
+        stub("https://gitbox.apache.org/repos/asf", gitbox + "</tbody></table></div></body></html>");
+
+        assertWithinBudget(
+                "list-branches", "maven-repository" + (REPOSITORIES - 1), () -> configure(new ListBranchesReport()));
+    }
+
+    /**
+     * Stub a Maven repository of plugins released in a distribution area, with their site and index page.
+     */
+    private void stubRepository() {
+        StringBuilder dist = new StringBuilder("<html><body><ul>");
+        StringBuilder index = new StringBuilder("<html><body><table>");
+        for (int i = 0; i < ARTIFACTS; i++) {
+            String artifactId = "maven-artifact" + i + "-plugin";
+            String file = artifactId + '-' + VERSION;
+            stub(
+                    REPO + artifactId + "/maven-metadata.xml",
+                    "<metadata><groupId>org.apache.maven.plugins</groupId><artifactId>" + artifactId
+                            + "</artifactId><versioning><latest>" + VERSION + "</latest><release>" + VERSION
+                            + "</release><versions><version>3.2.0</version><version>" + VERSION
+                            + "</version></versions><lastUpdated>20240101000000</lastUpdated></versioning>"
+                            + "</metadata>");
+            stub(
+                    REPO + artifactId + '/' + VERSION + '/',
+                    "<html><body><a href=\"" + file + ".pom\">pom</a><a href=\"" + file
+                            + "-source-release.zip\">zip</a><a href=\"" + file
+                            + "-source-release.zip.asc\">asc</a><a href=\"" + file
+                            + "-source-release.zip.sha512\">sha512</a></body></html>");
+            stub(
+                    REPO + artifactId + '/' + VERSION + '/' + file + ".pom",
+                    "<project><parent><groupId>org.apache.maven.plugins</groupId><artifactId>maven-plugins"
+                            + "</artifactId><version>40</version></parent><artifactId>" + artifactId
+                            + "</artifactId><version>" + VERSION + "</version></project>");
+            stubResource("https://maven.apache.org/plugins/" + artifactId + '/', "site/fluido.html");
+
+            for (String suffix : new String[] {"", ".asc", ".sha512"}) {
+                dist.append("<li><a href=\"")
+                        .append(file)
+                        .append("-source-release.zip")
+                        .append(suffix)
+                        .append("\">file</a></li>");
+            }
+            index.append("<tr><td><a href=\"/plugins/")
+                    .append(artifactId)
+                    .append("/\">")
+                    .append(artifactId)
+                    .append("</a></td><td>B</td><td>")
+                    .append(VERSION)
+                    .append("</td><td>2024-06-14</td></tr>");
+        }
+        stub(
+                REPO + "maven-plugins/40/maven-plugins-40.pom",
+                "<project><groupId>org.apache.maven.plugins</groupId><artifactId>maven-plugins</artifactId>"
+                        + "<version>40</version><url>https://maven.apache.org/plugins/</url></project>");
+        stub("https://downloads.apache.org/maven/plugins", dist + "</ul></body></html>");
+        stub("https://maven.apache.org/plugins/", index + "</table></body></html>");
+        // other index pages, without any configured artifact
+        for (String url : new String[] {
+            "https://maven.apache.org/shared/",
+            "https://maven.apache.org/skins/",
+            DistCheckIndexPageReport.POMS_INDEX_URL
+        }) {
+            stub(url, "<html><body><table></table></body></html>");
+        }
+    }
+
+    private void stub(String url, String body) {
+        stub(url, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void stub(String url, byte[] body) {
+        server.stubFor(
+                get(urlEqualTo(HttpRetry.route(url).substring(server.baseUrl().length())))
+                        .willReturn(ok().withBody(body)));
+    }
+
+    private void stubResource(String url, String resource) {
+        try (InputStream in = getClass().getResourceAsStream(resource)) {
+            stub(url, in.readAllBytes());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Configure a report like its Mojo parameters defaults would, with the configuration lines of the stubbed
+     * repository and a new cache directory for every run.
+     */
+    private <T extends AbstractMavenReport> T configure(T report) throws ReflectiveOperationException {
+        File run = new File(dir, "run" + runs.incrementAndGet());
+        set(report, "outputDirectory", new File(run, "site"));
+        if (report instanceof AbstractDistCheckReport) {
+            List<String> configurationLines = new ArrayList<>();
+            configurationLines.add("> dist-area = https://downloads.apache.org/maven/");
+            configurationLines.add("/plugins: org.apache.maven.plugins https://maven.apache.org/plugins/");
+            for (int i = 0; i < ARTIFACTS; i++) {
+                configurationLines.add("  maven-artifact" + i + "-plugin");
+            }
+            set(report, "repoBaseUrl", "https://repo.maven.apache.org/maven2/");
+            set(report, "configurationLines", configurationLines);
+            set(report, "failuresDirectory", new File(run, "dist-tool"));
+            set(report, "cacheDirectory", new File(run, "cache"));
+            set(report, "threads", 8);
+            set(report, "incrementalMaxAge", 7);
+            set(report, "slowestArtifacts", 10);
+        }
+        return report;
+    }
+
+    private static void set(Object mojo, String name, Object value) throws ReflectiveOperationException {
+        for (Class<?> c = mojo.getClass(); c != null; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(mojo, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // declared by a super class
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+
+    private interface ReportFactory {
+        AbstractMavenReport create() throws Exception;
+    }
+
+    /**
+     * @param expected a text the report renders only when it did its work
+     */
+    private static void assertWithinBudget(String goal, String expected, ReportFactory factory) throws Exception {
+        // first run loads classes and initializes static state, and checks the fixtures are complete
+        AbstractMavenReport first = factory.create();
+        StringWriter html = new StringWriter();
+        first.generate(new Xhtml5BaseSink(html), null, Locale.ENGLISH);
+        assertThat(html.toString()).as(goal + " output").contains(expected);
+        if (first instanceof AbstractDistCheckReport report) {
+            File failures = new File(report.failuresDirectory, report.getFailuresFilename());
+            assertThat(failures.exists() ? Files.readAllLines(failures.toPath()) : List.of())
+                    .as(goal + " failures")
+                    .isEmpty();
+        }
+
+        AllocationBudget.Footprint footprint = AllocationBudget.measure(() -> {
+            AbstractMavenReport report = factory.create();
+            report.generate(new Xhtml5BaseSink(Writer.nullWriter()), null, Locale.ENGLISH);
+            return report;
+        });
+        assertThat(budget.check(goal, footprint)).as(goal + ": " + footprint).isEmpty();
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.ProvisionException;
+import org.apache.maven.doxia.sink.impl.Xhtml5BaseSink;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.reporting.AbstractMavenReport;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.sisu.space.BeanScanning;
+import org.eclipse.sisu.space.SpaceModule;
+import org.eclipse.sisu.space.URLClassSpace;
+import org.eclipse.sisu.wire.WireModule;
+
+/**
+ * End-to-end load benchmark: runs reports in-process against a {@link WireMockFarm} serving recorded responses with
+ * simulated network conditions, and reports wall time, request count, bytes transferred and peak heap of each report.
+ * <p>
+ * Record an archive once with a normal run, for example <code>mvn site -Ddist-tool.http.record=/tmp/archive</code>,
+ * then replay it as many times as needed without touching ASF infrastructure:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.main=org.apache.maven.dist.tools.LoadBenchmark \
+ *     -Djmh.args="--archive /tmp/archive --latency 80 --bandwidth 2048 --error-rate 0.001"
+ * </pre>
+ * Options:
+ * <ul>
+ * <li><code>--archive dir</code>: the recorded {@link HttpArchive} (required),</li>
+ * <li><code>--goals g1,g2</code>: the reports to run, default is every network bound dist check report,</li>
+ * <li><code>--latency ms</code>: delay before each response, default 50,</li>
+ * <li><code>--bandwidth KiB/s</code>: body transfer rate, default 0 for unlimited,</li>
+ * <li><code>--error-rate p</code>: probability of a <code>503</code> response, default 0,</li>
+ * <li><code>--threads n</code>: report <code>threads</code> parameter, default 8,</li>
+ * <li><code>--configuration file</code>: configuration lines to use instead of <code>dist-tool.conf</code>,</li>
+ * <li><code>--work dir</code>: output directory, default <code>target/load-benchmark</code>.</li>
+ * </ul>
+ * Results are printed and written to <code>load-benchmark.csv</code> in the output directory.
+ */
+public class LoadBenchmark {
+    private static final String DEFAULT_GOALS =
+            "check-source-release,check-site,check-index-page,committers-stats,list-branches";
+
+    /**
+     * Measures of a report run.
+     *
+     * @param goal the report goal
+     * @param wallMillis the wall time
+     * @param traffic the network traffic
+     * @param peakHeap the peak heap usage, in bytes
+     * @param error the error message if the report failed, or <code>null</code>
+     */
+    record Result(String goal, long wallMillis, WireMockFarm.Traffic traffic, long peakHeap, String error) {}
+
+    private final Map<String, String> options;
+
+    private final Map<String, Xpp3Dom> mojos;
+
+    private final Path work;
+
+    private final int threads;
+
+    private Injector injector;
+
+    LoadBenchmark(Map<String, String> options) throws IOException, XmlPullParserException {
+        this.options = options;
+        this.mojos = readMojoDescriptors();
+        this.work = Paths.get(options.getOrDefault("work", "target/load-benchmark"))
+                .toAbsolutePath();
+        this.threads = Integer.parseInt(options.getOrDefault("threads", "8"));
+    }
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args the options, as <code>--name value</code> pairs
+     * @throws Exception if the benchmark cannot run
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("unexpected argument " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        if (!options.containsKey("archive")) {
+            throw new IllegalArgumentException("missing --archive option, see LoadBenchmark javadoc");
+        }
+
+        new LoadBenchmark(options).run();
+    }
+
+    void run() throws Exception {
+        WireMockFarm.Network network = new WireMockFarm.Network(
+                Integer.parseInt(options.getOrDefault("latency", "50")),
+                Integer.parseInt(options.getOrDefault("bandwidth", "0")),
+                Double.parseDouble(options.getOrDefault("error-rate", "0")));
+        Map<String, Class<?>> reports = new LinkedHashMap<>();
+        for (String goal : options.getOrDefault("goals", DEFAULT_GOALS).split(",")) {
+            Xpp3Dom mojo = mojos.get(goal.trim());
+            if (mojo == null) {
+                throw new IllegalArgumentException("unknown goal " + goal + ", available: " + mojos.keySet());
+            }
+            reports.put(goal.trim(), Class.forName(mojo.getChild("implementation").getValue()));
+        }
+
+        FileUtils.deleteDirectory(work.toFile());
+        Files.createDirectories(work);
+
+        List<Result> results = new ArrayList<>();
+        try (WireMockFarm farm = new WireMockFarm(Paths.get(options.get("archive")), network, threads)) {
+            System.out.println("Serving " + farm.getStubs() + " recorded responses on " + farm.getOrigin() + " with "
+                    + network);
+            System.setProperty(HttpRetry.ORIGIN_PROPERTY, farm.getOrigin());
+
+            injector = Guice.createInjector(new WireModule(
+                    new SpaceModule(new URLClassSpace(LoadBenchmark.class.getClassLoader()), BeanScanning.INDEX, false),
+                    // reports are bound explicitly for their component maps to be wired
+                    binder -> reports.values().forEach(binder::bind)));
+            for (Map.Entry<String, Class<?>> report : reports.entrySet()) {
+                results.add(run(report.getKey(), report.getValue(), farm));
+            }
+        } finally {
+            System.clearProperty(HttpRetry.ORIGIN_PROPERTY);
+        }
+
+        print(results);
+    }
+
+    private Result run(String goal, Class<?> reportClass, WireMockFarm farm) throws Exception {
+        System.out.println("Running " + goal);
+
+        farm.resetTraffic();
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+
+        long start = System.nanoTime();
+        String error = null;
+        try {
+            // created by Sisu like in Maven, components like the committers repository reading data on creation
+            AbstractMavenReport report = (AbstractMavenReport) injector.getInstance(reportClass);
+            configure(report, mojos.get(goal), work.resolve(goal));
+            report.generate(new Xhtml5BaseSink(new StringWriter()), null, Locale.ENGLISH);
+        } catch (ProvisionException e) {
+            // a component failed on creation: Guice messages cannot be formatted with Java 21 classes
+            error = e.getCause().getClass().getSimpleName() + ": " + e.getCause().getMessage();
+        } catch (Exception | LinkageError e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            // sum of pool peaks is an upper bound of the heap peak
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        return new Result(goal, wallMillis, farm.resetTraffic(), peakHeap, error);
+    }
+
+    /**
+     * Configure a report with the default values of its parameters, like Maven does.
+     */
+    private void configure(AbstractMavenReport report, Xpp3Dom mojo, Path basedir) throws Exception {
+        report.setLog(new QuietLog());
+        Xpp3Dom configuration = mojo.getChild("configuration");
+        for (Xpp3Dom parameter : configuration.getChildren()) {
+            String value = parameter.getAttribute("default-value");
+            if (value == null) {
+                continue;
+            }
+            value = value.replace("${project.build.directory}", basedir.resolve("target").toString())
+                    .replace("${basedir}", basedir.toString());
+            if (!value.contains("${")) {
+                set(report, parameter.getName(), parameter.getAttribute("implementation"), value);
+            }
+        }
+
+        set(report, "threads", "int", String.valueOf(threads));
+        Field configurationLines = getField(report, "configurationLines");
+        if (configurationLines != null && options.containsKey("configuration")) {
+            configurationLines.set(
+                    report, new ArrayList<>(Files.readAllLines(Paths.get(options.get("configuration")))));
+        }
+    }
+
+    private static void set(Object target, String name, String type, String value) throws Exception {
+        Field field = getField(target, name);
+        if (field == null) {
+            return;
+        }
+        Object converted;
+        switch (type) {
+            case "int":
+                converted = Integer.parseInt(value);
+                break;
+            case "boolean":
+                converted = Boolean.parseBoolean(value);
+                break;
+            case "java.io.File":
+                converted = new File(value);
+                break;
+            case "java.util.List":
+                // comma separated, like Maven converts a default value to a collection
+                List<String> values = new ArrayList<>();
+                for (String element : value.split(",")) {
+                    if (!element.isBlank()) {
+                        values.add(element.trim());
+                    }
+                }
+                converted = values;
+                break;
+            default:
+                converted = value;
+        }
+        field.set(target, converted);
+    }
+
+    private static Field getField(Object target, String name) {
+        for (Class<?> c = target.getClass(); c != null; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException e) {
+                // look in superclass
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Xpp3Dom> readMojoDescriptors() throws IOException, XmlPullParserException {
+        Map<String, Xpp3Dom> mojos = new LinkedHashMap<>();
+        try (InputStream in = LoadBenchmark.class.getResourceAsStream("/META-INF/maven/plugin.xml")) {
+            if (in == null) {
+                throw new IOException("plugin descriptor not found, run at least process-classes");
+            }
+            for (Xpp3Dom mojo : Xpp3DomBuilder.build(in, "UTF-8").getChild("mojos").getChildren("mojo")) {
+                mojos.put(mojo.getChild("goal").getValue(), mojo);
+            }
+        }
+        return mojos;
+    }
+
+    private void print(List<Result> results) throws IOException {
+        String header = String.format(
+                "%-22s %10s %9s %12s %9s %8s %10s", "Report", "Wall (ms)", "Requests", "Bytes", "Unmatched",
+                "Errors", "Heap (MB)");
+        System.out.println();
+        System.out.println(header);
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(work.resolve("load-benchmark.csv")))) {
+            csv.println("goal,wallMillis,requests,bytes,unmatched,injectedErrors,peakHeapBytes,error");
+            for (Result r : results) {
+                WireMockFarm.Traffic t = r.traffic();
+                System.out.println(String.format(
+                        "%-22s %10d %9d %12d %9d %8d %10d", r.goal(), r.wallMillis(), t.requests(), t.bytes(),
+                        t.unmatched(), t.errors(), r.peakHeap() / (1024 * 1024)));
+                if (r.error() != null) {
+                    System.out.println("    failed: " + r.error());
+                }
+                csv.println(String.join(
+                        ",",
+                        r.goal(),
+                        String.valueOf(r.wallMillis()),
+                        String.valueOf(t.requests()),
+                        String.valueOf(t.bytes()),
+                        String.valueOf(t.unmatched()),
+                        String.valueOf(t.errors()),
+                        String.valueOf(r.peakHeap()),
+                        r.error() == null ? "" : '"' + r.error().replace("\"", "\"\"") + '"'));
+            }
+        }
+    }
+
+    /**
+     * Report logs are reduced to warnings and errors, to keep the console out of measures.
+     */
+    private static class QuietLog extends SystemStreamLog {
+        @Override
+        public boolean isInfoEnabled() {
+            return false;
+        }
+
+        @Override
+        public void info(CharSequence content) {}
+
+        @Override
+        public void info(CharSequence content, Throwable error) {}
+
+        @Override
+        public void info(Throwable error) {}
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Local WireMock server serving the responses of an {@link HttpArchive}, with simulated network conditions:
+ * latency, bandwidth and error rate. Requests are routed to it with {@link HttpRetry#ORIGIN_PROPERTY}, the original
+ * host being the first path segment.
+ */
+class WireMockFarm implements AutoCloseable {
+    /** Headers describing the original transfer, not the archived body. */
+    private static final Set<String> TRANSFER_HEADERS =
+            Set.of("content-length", "transfer-encoding", "content-encoding", "connection", "keep-alive");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Simulated network conditions.
+     *
+     * @param latencyMillis delay before each response
+     * @param bandwidthKiBps body transfer rate in KiB/s, <code>0</code> for unlimited
+     * @param errorRate probability of a <code>503</code> response, between <code>0</code> and <code>1</code>
+     */
+    record Network(int latencyMillis, int bandwidthKiBps, double errorRate) {}
+
+    private final WireMockServer server;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicLong unmatched = new AtomicLong();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private final StubMapping fallback;
+
+    private int stubs;
+
+    /**
+     * Start a farm serving an archive recorded with <code>-Ddist-tool.http.record=dir</code>.
+     *
+     * @param archive the archive directory
+     * @param network the simulated network conditions
+     * @param threads the server threads
+     * @throws IOException if the archive cannot be read
+     */
+    WireMockFarm(Path archive, Network network, int threads) throws IOException {
+        server = new WireMockServer(options().dynamicPort()
+                .containerThreads(Math.max(threads * 2, 16))
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(Math.max(threads, 4))
+                .disableRequestJournal()
+                // no cleartext HTTP/2 upgrade: real hosts negotiate HTTP/2 over TLS, and the HttpClient upgrade of
+                // concurrent connections to a plain http server sometimes fails with "EOF reached while reading"
+                .http2PlainDisabled(true)
+                .extensions(new NetworkTransformer(network), new Counter()));
+        server.start();
+        // urls that are not in the archive are counted, instead of being logged by WireMock as unmatched
+        fallback = server.stubFor(
+                any(anyUrl()).atPriority(Integer.MAX_VALUE).willReturn(aResponse().withStatus(404)));
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(archive, "*.json")) {
+            for (Path entry : entries) {
+                stub(entry);
+            }
+        }
+    }
+
+    private void stub(Path entryFile) throws IOException {
+        HttpArchive.Entry entry = MAPPER.readValue(entryFile.toFile(), HttpArchive.Entry.class);
+        if (!"GET".equals(entry.method())) {
+            // HEAD requests are served from GET entries
+            Path get = entryFile.resolveSibling(HttpArchive.key("GET", entry.url()) + ".json");
+            if (Files.isRegularFile(get)) {
+                return;
+            }
+        }
+
+        ResponseDefinitionBuilder response = aResponse().withStatus(entry.status());
+        for (Map.Entry<String, List<String>> header : entry.headers().entrySet()) {
+            String name = header.getKey();
+            if (!name.startsWith(":") && !TRANSFER_HEADERS.contains(name.toLowerCase())) {
+                response.withHeader(name, header.getValue().toArray(new String[0]));
+            }
+        }
+        Path body = entryFile.resolveSibling(
+                entryFile.getFileName().toString().replace(".json", ".body.gz"));
+        if (Files.isRegularFile(body)) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(body))) {
+                response.withBody(in.readAllBytes());
+            }
+        }
+
+        server.stubFor(any(urlEqualTo(path(entry.url()))).willReturn(response));
+        stubs++;
+    }
+
+    /**
+     * Get the path of an original url on the farm, as routed by {@link HttpRetry#route(String)}.
+     */
+    private static String path(String url) {
+        URI uri = URI.create(url);
+        return '/' + uri.getRawAuthority() + uri.getRawPath() + (uri.getRawQuery() == null ? "" : '?' + uri.getRawQuery());
+    }
+
+    String getOrigin() {
+        return "http://localhost:" + server.port();
+    }
+
+    int getStubs() {
+        return stubs;
+    }
+
+    /**
+     * Traffic counters since the previous reset.
+     *
+     * @param requests the number of requests
+     * @param bytes the number of body bytes sent
+     * @param unmatched the number of requests for urls that are not in the archive
+     * @param errors the number of injected errors
+     */
+    record Traffic(long requests, long bytes, long unmatched, long errors) {}
+
+    Traffic resetTraffic() {
+        return new Traffic(requests.getAndSet(0), bytes.getAndSet(0), unmatched.getAndSet(0), errors.getAndSet(0));
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+
+    /**
+     * Adds latency and bandwidth limit to every response, and replaces some with server errors.
+     */
+    private class NetworkTransformer implements ResponseDefinitionTransformerV2 {
+        private final Network network;
+
+        NetworkTransformer(Network network) {
+            this.network = network;
+        }
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            if (network.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < network.errorRate()) {
+                errors.incrementAndGet();
+                return aResponse()
+                        .withStatus(503)
+                        .withFixedDelay(network.latencyMillis())
+                        .build();
+            }
+
+            ResponseDefinition definition = serveEvent.getResponseDefinition();
+            ResponseDefinitionBuilder response =
+                    ResponseDefinitionBuilder.like(definition).withFixedDelay(network.latencyMillis());
+            byte[] body = definition.getByteBody();
+            if (network.bandwidthKiBps() > 0 && body != null && body.length > 0) {
+                int millis = (int) (body.length * 1000L / (network.bandwidthKiBps() * 1024L));
+                if (millis > 0) {
+                    response.withChunkedDribbleDelay(Math.max(1, Math.min(body.length / 8192, 100)), millis);
+                }
+            }
+            return response.build();
+        }
+
+        @Override
+        public String getName() {
+            return "network";
+        }
+    }
+
+    /**
+     * Counts requests and transferred bytes.
+     */
+    private class Counter implements ServeEventListener {
+        @Override
+        public void afterComplete(ServeEvent serveEvent, Parameters parameters) {
+            requests.incrementAndGet();
+            if (fallback.getId().equals(serveEvent.getStubMapping().getId())) {
+                unmatched.incrementAndGet();
+            }
+            if (!"HEAD".equals(serveEvent.getRequest().getMethod().getName())) {
+                byte[] body = serveEvent.getResponse().getBody();
+                bytes.addAndGet(body == null ? 0 : body.length);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "counter";
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.pgp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <code>KEYS</code> file processing: full parsing of the keys, used to verify signatures and to compare
+ * <code>KEYS</code> files, and comparison by fingerprint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeysBenchmark {
+    private byte[] keys;
+
+    private KeysIndex index;
+
+    private KeysIndex other;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream in = KeysBenchmark.class.getResourceAsStream("KEYS")) {
+            keys = in.readAllBytes();
+        }
+        index = KeysIndex.load(new ByteArrayInputStream(keys));
+        // same keys, without the first one
+        String content = new String(keys, StandardCharsets.US_ASCII);
+        String end = "-----END PGP PUBLIC KEY BLOCK-----";
+        other = KeysIndex.load(new ByteArrayInputStream(content.substring(content.indexOf(end) + end.length())
+                .getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Benchmark
+    public KeysDiff compareKeys() {
+        return KeysDiff.compare(index, other);
+    }
+
+    @Benchmark
+    public KeysIndex loadKeys() throws IOException {
+        return KeysIndex.load(new ByteArrayInputStream(keys));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.site;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Skin checkers evaluation on site pages, with a full parse or with the streamed probe.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HTMLCheckerBenchmark {
+    private static final String URL = "https://maven.apache.org/archetype/";
+
+    @Param({"fluido.html", "stylus-right.html"})
+    public String page;
+
+    private byte[] html;
+
+    private List<HTMLChecker> checkers;
+
+    private VersionMarkers markers;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream in = HTMLCheckerBenchmark.class.getResourceAsStream(page)) {
+            html = in.readAllBytes();
+        }
+        checkers = HTMLCheckerFactory.getCheckers();
+        markers = new VersionMarkers(checkers);
+    }
+
+    /**
+     * Baseline: full parse, then one selection per checker.
+     */
+    @Benchmark
+    public int parseAndCheck() throws IOException {
+        Document doc = Jsoup.parse(new ByteArrayInputStream(html), null, URL);
+        int found = 0;
+        for (HTMLChecker checker : checkers) {
+            if (checker.isDisplayedArtifactVersionOk(doc, "3.2.1")) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public CheckSiteResult probe() throws IOException {
+        CheckSiteResult result = new CheckSiteResult(null, "3.2.1");
+        result.setUrl(URL);
+        result.probe(new ByteArrayInputStream(html), StandardCharsets.UTF_8, markers);
+        return result;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.source;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Directory index href extraction and the lookups done by the source release check on a dist area listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectoryListingBenchmark {
+    private static final String URL = "https://dist.apache.org/repos/dist/release/maven/plugins/";
+
+    private static final String SOURCE_RELEASE = "maven-shade-plugin-1.0.3-source-release.zip";
+
+    private byte[] html;
+
+    private DirectoryListing listing;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream in = DirectoryListingBenchmark.class.getResourceAsStream("dist-plugins-index.html")) {
+            html = in.readAllBytes();
+        }
+        listing = parseListing();
+    }
+
+    @Benchmark
+    public DirectoryListing parseListing() throws IOException {
+        return DirectoryListing.parse(URL, Jsoup.parse(new ByteArrayInputStream(html), null, URL));
+    }
+
+    @Benchmark
+    public boolean checkSourceReleaseFiles() {
+        return listing.contains(SOURCE_RELEASE)
+                && listing.contains(SOURCE_RELEASE + ".asc")
+                && (listing.contains(SOURCE_RELEASE + ".sha1") || listing.contains(SOURCE_RELEASE + ".sha512"));
+    }
+}
@@ -18,6 +18,11 @@
  */
 package org.apache.maven.dist.tools;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * <p>AbstractCheckResult class.</p>
  *
@@ -56,4 +61,35 @@ public class AbstractCheckResult {
     public String getVersion() {
         return version;
     }
+
+    /**
+     * Create the machine readable record of this result, with the version range of the configuration line as
+     * <code>versionRange</code> detail, if any.
+     *
+     * @param report the report goal
+     * @param errors error issues
+     * @param warnings warning issues
+     * @param details report specific values
+     * @return the record
+     */
+    protected ResultRecord toRecord(
+            String report, List<String> errors, List<String> warnings, Map<String, String> details) {
+        List<String> issues = new ArrayList<>(errors);
+        issues.addAll(warnings);
+        if (configLine.getVersionRange() != null) {
+            Map<String, String> withRange = new LinkedHashMap<>();
+            withRange.put(
+                    ResultRecord.VERSION_RANGE, configLine.getVersionRange().toString());
+            withRange.putAll(details);
+            details = withRange;
+        }
+        return new ResultRecord(
+                report,
+                configLine.getGroupId(),
+                configLine.getArtifactId(),
+                version,
+                ResultRecord.Status.of(errors, warnings),
+                issues,
+                details);
+    }
 }
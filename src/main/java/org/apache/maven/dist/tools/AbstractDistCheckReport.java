@@ -21,18 +21,24 @@ package org.apache.maven.dist.tools;
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
@@ -57,8 +63,6 @@ import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 public abstract class AbstractDistCheckReport extends AbstractMavenReport {
     private static final String CONF = "dist-tool.conf";
 
-    private static final String EOL = System.getProperty("line.separator");
-
     /**
      * Abstract Dist Check Report.
      */
@@ -82,6 +86,55 @@ public abstract class AbstractDistCheckReport extends AbstractMavenReport {
     @Parameter(defaultValue = "${project.build.directory}/dist-tool")
     protected File failuresDirectory;
 
+    /**
+     * Maximum number of concurrent network requests issued by a report.
+     */
+    @Parameter(property = "threads", defaultValue = "8")
+    protected int threads;
+
+    private ExecutorService executor;
+
+    /**
+     * Directory where data reused between runs is cached, like source release digests.
+     */
+    @Parameter(property = "cacheDirectory", defaultValue = "${project.build.directory}/dist-tool-cache")
+    protected File cacheDirectory;
+
+    /**
+     * Incremental mode: results of previous run are persisted in <code>cacheDirectory</code> with a fingerprint of
+     * each artifact's inputs (like <code>maven-metadata.xml</code> <code>lastUpdated</code>), and artifacts with
+     * unchanged inputs are not checked again. Only supported by <code>check-source-release</code>: other reports
+     * log a warning and check every artifact.
+     */
+    @Parameter(property = "incremental", defaultValue = "false")
+    protected boolean incremental;
+
+    /**
+     * Maximum age in days of the last full run in incremental mode: when older, every artifact is checked again.
+     */
+    @Parameter(property = "incrementalMaxAge", defaultValue = "7")
+    protected int incrementalMaxAge;
+
+    private IncrementalState.State previousState;
+
+    /** Fingerprints of this run, by configuration line key. */
+    private final Map<String, String> fingerprints = new HashMap<>();
+
+    /** Failures of this run, by configuration line key, including failures of checks run on the executor. */
+    private final Map<String, List<FailureSink.Failure>> artifactFailures = new ConcurrentHashMap<>();
+
+    private FailureSink failureSink;
+
+    /**
+     * Number of slowest artifacts logged at the end of the report, with the time spent in each phase.
+     */
+    @Parameter(property = "slowestArtifacts", defaultValue = "10")
+    protected int slowestArtifacts;
+
+    private PhaseTimings timings;
+
+    private PhaseTimings.Phase pendingPhase;
+
     /**
      * list of artifacts repositories.
      */
@@ -132,12 +185,162 @@ public abstract class AbstractDistCheckReport extends AbstractMavenReport {
      */
     protected abstract String getFailuresFilename();
 
+    /**
+     * Get the fingerprint of inputs of an artifact check, for incremental mode. Default implementation does not
+     * support incremental mode.
+     *
+     * @param cli the artifact configuration, with metadata
+     * @param version the version to check
+     * @return the fingerprint, or <code>null</code> if the artifact must be checked
+     * @throws IOException if inputs cannot be read
+     */
+    protected String getFingerprint(ConfigurationLineInfo cli, String version) throws IOException {
+        return null;
+    }
+
+    /**
+     * Does this report support {@link #incremental} mode, by implementing
+     * {@link #getFingerprint(ConfigurationLineInfo, String)} and
+     * {@link #restoreResult(ConfigurationLineInfo, String, ResultRecord)}? Default implementation does not.
+     *
+     * @return <code>true</code> if incremental mode is supported
+     */
+    protected boolean isIncrementalSupported() {
+        return false;
+    }
+
+    /**
+     * Restore the result of an artifact check from previous run, instead of calling
+     * {@link #checkArtifact(ConfigurationLineInfo, String)}.
+     *
+     * @param cli the artifact configuration, with metadata
+     * @param version the version to check
+     * @param previous the previous result
+     * @return <code>true</code> if restored, <code>false</code> if the artifact must be checked
+     */
+    protected boolean restoreResult(ConfigurationLineInfo cli, String version, ResultRecord previous) {
+        return false;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String getOutputName() {
         return "dist-tool-" + getFailuresFilename().replace(".log", "");
     }
 
+    /**
+     * Get the report goal, used to identify results.
+     *
+     * @return the goal
+     */
+    protected String getGoal() {
+        return getFailuresFilename().replace(".log", "");
+    }
+
+    /**
+     * Write machine readable results next to the HTML report, as <code>.jsonl</code> and <code>.csv</code>.
+     *
+     * @param records the results
+     * @throws MavenReportException if results cannot be written
+     */
+    protected void writeResults(List<ResultRecord> records) throws MavenReportException {
+        if (timings != null) {
+            records = records.stream().map(this::addTimings).collect(Collectors.toList());
+        }
+        try {
+            ResultsWriter.write(outputDirectory, getOutputName(), records);
+        } catch (IOException e) {
+            throw new MavenReportException("error while writing results of " + getOutputName(), e);
+        }
+
+        if (incremental) {
+            saveIncrementalState(records);
+        }
+    }
+
+    private ResultRecord addTimings(ResultRecord record) {
+        Map<String, String> times = timings.getDetails(record.key());
+        if (times.isEmpty()) {
+            return record;
+        }
+        Map<String, String> details = new LinkedHashMap<>(record.details());
+        details.putAll(times);
+        return new ResultRecord(
+                record.report(),
+                record.groupId(),
+                record.artifactId(),
+                record.version(),
+                record.status(),
+                record.issues(),
+                details);
+    }
+
+    private File getIncrementalStateFile() {
+        return new File(cacheDirectory, getGoal() + "-state.json");
+    }
+
+    private void saveIncrementalState(List<ResultRecord> records) {
+        Map<String, IncrementalState.Entry> entries = new HashMap<>();
+        for (ResultRecord record : records) {
+            String key = record.key();
+            String fingerprint = fingerprints.get(key);
+            if (fingerprint != null) {
+                entries.put(
+                        key,
+                        new IncrementalState.Entry(
+                                fingerprint, record, artifactFailures.getOrDefault(key, Collections.emptyList())));
+            }
+        }
+        try {
+            IncrementalState.save(
+                    getIncrementalStateFile(), new IncrementalState.State(previousState.lastFullRun(), entries));
+        } catch (IOException e) {
+            getLog().warn("cannot write " + getIncrementalStateFile() + ": " + e.getMessage());
+        }
+    }
+
+    private void loadIncrementalState() throws MavenReportException {
+        File stateFile = getIncrementalStateFile();
+        try {
+            previousState = IncrementalState.load(stateFile, TimeUnit.DAYS.toMillis(incrementalMaxAge));
+        } catch (IOException e) {
+            throw new MavenReportException("error while reading " + stateFile, e);
+        }
+        if (previousState.entries().isEmpty()) {
+            getLog().info("Incremental mode: full run");
+        }
+    }
+
+    private void checkArtifactIncrementally(ConfigurationLineInfo cli, String version) throws MavenReportException {
+        String key = cli.getKey();
+        String fingerprint;
+        try {
+            fingerprint = getFingerprint(cli, version);
+        } catch (IOException e) {
+            getLog().warn("cannot compute fingerprint of " + key + ": " + e.getMessage());
+            fingerprint = null;
+        }
+
+        IncrementalState.Entry previous = previousState.entries().get(key);
+        if (fingerprint != null) {
+            fingerprints.put(key, fingerprint);
+            if (previous != null
+                    && fingerprint.equals(previous.fingerprint())
+                    && restoreResult(cli, version, previous.result())) {
+                getLog().info("  unchanged since previous run, check skipped");
+                for (FailureSink.Failure failure : previous.failures()) {
+                    // already filtered by ignore list when first written
+                    getLog().error(failure.message());
+                    addFailure(failure);
+                }
+                artifactFailures.put(key, previous.failures());
+                return;
+            }
+        }
+
+        checkArtifact(cli, version);
+    }
+
     private void loadConfiguration() throws MavenReportException {
         URL configuration = Thread.currentThread().getContextClassLoader().getResource(CONF);
         try (BufferedReader in = new BufferedReader(new InputStreamReader(configuration.openStream()))) {
@@ -164,16 +367,22 @@ public abstract class AbstractDistCheckReport extends AbstractMavenReport {
                 newArtifactRepositoryPolicy(true));
         artifactRepositories.add(aa);
 
+        timings = new PhaseTimings(getGoal());
+        PhaseTimings.Phase phase = timings.start(PhaseTimings.CONFIGURATION, null);
         if (configurationLines.isEmpty()) {
             loadConfiguration();
         }
 
-        File failures = getFailuresFile();
-        if (failures.exists()) {
-            failures.delete();
-        } else {
-            failuresDirectory.mkdirs();
+        if (incremental && !isIncrementalSupported()) {
+            getLog().warn("Incremental mode is not supported by " + getGoal() + ": every artifact is checked");
+            incremental = false;
         }
+        if (incremental) {
+            loadIncrementalState();
+        }
+        phase.end();
+
+        startFailures();
 
         ConfigurationLineInfo currentGroup = null;
         for (String line : configurationLines) {
@@ -251,15 +460,60 @@ public abstract class AbstractDistCheckReport extends AbstractMavenReport {
                 }
             }
 
-            checkArtifact(aLine, getVersion(aLine));
+            String artifact = aLine.getKey();
+            phase = timings.start(PhaseTimings.VERSION, artifact);
+            String version = getVersion(aLine);
+            phase.end();
+
+            phase = timings.start(PhaseTimings.CHECK, artifact);
+            if (incremental) {
+                checkArtifactIncrementally(aLine, version);
+            } else {
+                checkArtifact(aLine, version);
+            }
+            phase.end();
+            DistToolEvents.artifactChecked();
         }
 
         getLog().info("");
+        // until rendering starts, the report waits for the checks run on the executor
+        pendingPhase = timings.start(PhaseTimings.CHECK, null);
+    }
+
+    /**
+     * Run a check of an artifact on the report executor, its duration being added to the artifact check time.
+     *
+     * @param cli the artifact
+     * @param check the check
+     * @return the running check
+     */
+    protected CompletableFuture<Void> runCheckAsync(ConfigurationLineInfo cli, Runnable check) {
+        String artifact = cli.getKey();
+        return CompletableFuture.runAsync(
+                () -> {
+                    PhaseTimings.Phase phase = timings.startConcurrent(PhaseTimings.CHECK, artifact);
+                    try {
+                        check.run();
+                    } finally {
+                        phase.end();
+                    }
+                },
+                getExecutor());
+    }
+
+    /**
+     * Mark the start of the report rendering, once every check is complete and before the first output to the sink.
+     */
+    protected void startRender() {
+        if (pendingPhase != null) {
+            pendingPhase.end();
+        }
+        pendingPhase = timings == null ? null : timings.start(PhaseTimings.RENDER, null);
     }
 
     private String getVersion(ConfigurationLineInfo aLine) throws MavenReportException {
         String metadataUrl = aLine.getMetadataFileURL(repoBaseUrl);
-        try (InputStream input = new BufferedInputStream(new URL(metadataUrl).openStream())) {
+        try (InputStream input = new BufferedInputStream(HttpRetry.openStream(metadataUrl))) {
             MetadataXpp3Reader metadataReader = new MetadataXpp3Reader();
             Metadata metadata = metadataReader.read(input);
 
@@ -362,6 +616,28 @@ public abstract class AbstractDistCheckReport extends AbstractMavenReport {
      * @return true if real error, or false if ignored
      */
     protected boolean addErrorLine(ConfigurationLineInfo cli, String version, List<String> ignore, String message) {
+        return addErrorLine(cli, version, ignore, null, null, message);
+    }
+
+    /**
+     * Log and add Error line to failures, with structured information, if not configured to ignore the
+     * artifact+version
+     *
+     * @param cli {@link org.apache.maven.dist.tools.ConfigurationLineInfo}
+     * @param version The version.
+     * @param ignore the list of ignores.
+     * @param category the kind of failure, to group failures, or <code>null</code>
+     * @param url the url where the failure can be seen, or <code>null</code>
+     * @param message  The message.
+     * @return true if real error, or false if ignored
+     */
+    protected boolean addErrorLine(
+            ConfigurationLineInfo cli,
+            String version,
+            List<String> ignore,
+            String category,
+            String url,
+            String message) {
         if ((ignore != null)
                 && (ignore.contains(cli.getArtifactId() + ':' + version) || ignore.contains(cli.getArtifactId()))) {
             getLog().warn(message);
@@ -369,13 +645,93 @@ public abstract class AbstractDistCheckReport extends AbstractMavenReport {
         }
 
         getLog().error(message);
+        FailureSink.Failure failure =
+                new FailureSink.Failure(cli.getGroupId() + ':' + cli.getArtifactId(), version, category, url, message);
+        if (incremental) {
+            // kept to be replayed when the artifact check is skipped by next run
+            artifactFailures
+                    .computeIfAbsent(cli.getKey(), k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(failure);
+        }
+        addFailure(failure);
+        return true;
+    }
 
-        try (PrintWriter output = new PrintWriter(new FileWriter(getFailuresFile(), true))) {
-            output.printf("%s%s", message, EOL);
-        } catch (Exception e) {
+    /**
+     * Add a failure that was already logged.
+     *
+     * @param failure the failure
+     */
+    protected void addFailure(FailureSink.Failure failure) {
+        try {
+            getFailureSink().add(failure);
+        } catch (IOException e) {
             getLog().error("Cannot append to " + getFailuresFilename());
         }
-        return true;
+    }
+
+    /**
+     * Start writing failures of a new run, deleting failures from previous run.
+     */
+    protected synchronized void startFailures() {
+        closeFailures();
+        failureSink = new FailureSink(getFailuresFile());
+    }
+
+    private synchronized FailureSink getFailureSink() {
+        if (failureSink == null) {
+            failureSink = new FailureSink(getFailuresFile());
+        }
+        return failureSink;
+    }
+
+    private synchronized void closeFailures() {
+        if (failureSink != null) {
+            try {
+                // kept: a failure added after close is appended, instead of starting new files
+                failureSink.close();
+            } catch (IOException e) {
+                getLog().error("Cannot write " + getFailuresFilename());
+            }
+        }
+    }
+
+    /**
+     * Get the executor used to run network requests concurrently, created on first use with {@link #threads}
+     * daemon threads and shut down when the report is closed.
+     *
+     * @return the report executor
+     */
+    protected synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger count = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+                Thread t = new Thread(r, "dist-tool-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return executor;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void closeReport() {
+        synchronized (this) {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+        }
+        closeFailures();
+        if (pendingPhase != null) {
+            pendingPhase.end();
+            pendingPhase = null;
+        }
+        if (timings != null) {
+            timings.log(getLog(), slowestArtifacts);
+        }
+        super.closeReport();
     }
 
     private File getFailuresFile() {
@@ -137,6 +137,29 @@ public class ConfigurationLineInfo {
         return artifactId;
     }
 
+    /**
+     * Get the key of this configuration line: the same artifact can be configured on several lines, each one with
+     * its own version range.
+     *
+     * @return <code>groupId:artifactId</code>, followed by the version range if any
+     */
+    public String getKey() {
+        return getKey(groupId, artifactId, (versionRange == null) ? null : versionRange.toString());
+    }
+
+    /**
+     * Get the key of a configuration line.
+     *
+     * @param groupId the groupId
+     * @param artifactId the artifactId
+     * @param versionRange the version range, or <code>null</code>
+     * @return <code>groupId:artifactId</code>, followed by the version range if any
+     * @see #getKey()
+     */
+    public static String getKey(String groupId, String artifactId, String versionRange) {
+        return groupId + ':' + artifactId + ((versionRange == null) ? "" : ' ' + versionRange);
+    }
+
     /**
      * <p>Getter for the field <code>directory</code>.</p>
      *
@@ -187,8 +210,29 @@ public class ConfigurationLineInfo {
         return getBaseURL(repoBaseUrl, version) + '/';
     }
 
-    String getVersionnedPomFileURL(String repoBaseUrl, String version) {
-        return getBaseURL(repoBaseUrl, version + URLSEP + artifactId + "-" + version + ".pom");
+    /**
+     * <p>getVersionnedPomFileURL.</p>
+     *
+     * @param repoBaseUrl a {@link java.lang.String} object
+     * @param version a {@link java.lang.String} object
+     * @return a {@link java.lang.String} object
+     */
+    public String getVersionnedPomFileURL(String repoBaseUrl, String version) {
+        return getPomFileURL(repoBaseUrl, groupId, artifactId, version);
+    }
+
+    /**
+     * Get the url of any POM in a repository, like a parent POM.
+     *
+     * @param repoBaseUrl the repository url, ending with <code>/</code>
+     * @param groupId the POM groupId
+     * @param artifactId the POM artifactId
+     * @param version the POM version
+     * @return the POM file url
+     */
+    public static String getPomFileURL(String repoBaseUrl, String groupId, String artifactId, String version) {
+        return repoBaseUrl + groupId.replaceAll("\\.", URLSEP) + URLSEP + artifactId + URLSEP + version + URLSEP
+                + artifactId + "-" + version + ".pom";
     }
 
     void setMetadata(Metadata aMetadata) {
@@ -208,6 +252,15 @@ public class ConfigurationLineInfo {
         return DateTimeFormatter.ISO_LOCAL_DATE.format(ta);
     }
 
+    /**
+     * Get <code>lastUpdated</code> value from metadata, which changes on every deployment.
+     *
+     * @return a {@link java.lang.String} object
+     */
+    public String getMetadataLastUpdated() {
+        return metadata.getVersioning().getLastUpdated();
+    }
+
     /**
      * <p>getSourceReleaseFilename.</p>
      *
@@ -18,22 +18,35 @@
  */
 package org.apache.maven.dist.tools;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.maven.dist.tools.archives.CheckSiteArchivesReport;
 import org.apache.maven.dist.tools.index.DistCheckIndexPageReport;
 import org.apache.maven.dist.tools.pgp.CheckPgpKeysReport;
 import org.apache.maven.dist.tools.site.DistCheckSiteReport;
 import org.apache.maven.dist.tools.source.DistCheckSourceReleaseReport;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.reporting.MavenReportException;
-import org.codehaus.plexus.util.FileUtils;
 
 /**
  * <p>DistCheckErrorsReport class.</p>
@@ -46,6 +59,7 @@ public class DistCheckErrorsReport extends AbstractDistCheckReport {
     public static final String[] FAILURES_FILENAMES = {
         DistCheckSourceReleaseReport.FAILURES_FILENAME,
         DistCheckSiteReport.FAILURES_FILENAME,
+        CheckSiteArchivesReport.FAILURES_FILENAME,
         DistCheckIndexPageReport.FAILURES_FILENAME,
         CheckPgpKeysReport.FAILURES_FILENAME
     };
@@ -58,49 +72,171 @@ public class DistCheckErrorsReport extends AbstractDistCheckReport {
         return false;
     }
 
-    private boolean checkError(String failuresFilename) throws MavenReportException {
-        File failureFile = new File(failuresDirectory, failuresFilename);
+    /**
+     * Fail the build on first error found in failure files, without rendering the report.
+     */
+    @Parameter(property = "failOnError", defaultValue = "false")
+    protected boolean failOnError;
 
-        try {
-            if (failureFile.exists()) {
-                String content = FileUtils.fileRead(failureFile);
-
-                String failure = failuresFilename.substring(0, failuresFilename.length() - 4);
-                Sink s = getSink();
-                s.section2();
-                s.sectionTitle2();
-                s.link("dist-tool-" + failure + ".html");
-                s.text(failure);
-                s.link_();
-                s.sectionTitle2_();
-                s.verbatim();
-                s.rawText(content);
-                s.verbatim_();
-                s.section2_();
-
-                Set<String> urls = new HashSet<>();
-                Pattern p = Pattern.compile("https://[\\S]+");
-                Matcher m = p.matcher(content);
-                while (m.find()) {
-                    urls.add(m.group());
+    private static final Pattern URL_PATTERN = Pattern.compile("https?://[\\S]+");
+
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[.,;:!?)'\"]+$");
+
+    private static final ObjectReader FAILURE_READER = new ObjectMapper().readerFor(FailureSink.Failure.class);
+
+    /**
+     * Render failures of one report while streaming them. Reports write failures artifact after artifact, so
+     * consecutive failures of an artifact are grouped by category and rendered as soon as the artifact changes: only
+     * the current group and counters are kept in memory, whatever the number of failures.
+     */
+    private static class FailureGroups {
+        private final Sink sink;
+
+        final Map<String, Integer> categoryCounts = new TreeMap<>();
+
+        final Set<String> artifacts = new HashSet<>();
+
+        int count;
+
+        private String artifact;
+
+        private final Map<String, List<String>> messages = new LinkedHashMap<>();
+
+        private final Set<String> urls = new LinkedHashSet<>();
+
+        FailureGroups(Sink sink) {
+            this.sink = sink;
+        }
+
+        void add(FailureSink.Failure failure) {
+            count++;
+            String failureArtifact = (failure.artifact() == null)
+                    ? "-"
+                    : failure.artifact() + (failure.version() == null ? "" : ":" + failure.version());
+            if (!failureArtifact.equals(artifact)) {
+                flush();
+                artifact = failureArtifact;
+                artifacts.add(failureArtifact);
+            }
+            String category = (failure.category() == null) ? "other" : failure.category();
+            messages.computeIfAbsent(category, c -> new ArrayList<>()).add(failure.message());
+            categoryCounts.merge(category, 1, Integer::sum);
+
+            if (failure.url() != null) {
+                urls.add(failure.url());
+            }
+            urls.addAll(findUrls(failure.message()));
+        }
+
+        /**
+         * Render the current artifact group, with its de-duplicated urls.
+         */
+        void flush() {
+            if (artifact == null) {
+                return;
+            }
+            sink.listItem();
+            sink.text(artifact);
+            for (Map.Entry<String, List<String>> category : messages.entrySet()) {
+                sink.verbatim();
+                sink.text(category.getKey() + ":\n" + String.join("\n", category.getValue()));
+                sink.verbatim_();
+            }
+            if (!urls.isEmpty()) {
+                sink.list();
+                for (String url : urls) {
+                    sink.listItem();
+                    sink.link(url);
+                    sink.text(url);
+                    sink.link_();
+                    sink.listItem_();
+                }
+                sink.list_();
+            }
+            sink.listItem_();
+
+            artifact = null;
+            messages.clear();
+            urls.clear();
+        }
+    }
+
+    /**
+     * Find http and https urls in a failure message.
+     *
+     * @param message the message
+     * @return the urls, in message order, without trailing punctuation of the sentence
+     */
+    static List<String> findUrls(String message) {
+        List<String> found = new ArrayList<>();
+        Matcher m = URL_PATTERN.matcher(message);
+        while (m.find()) {
+            found.add(TRAILING_PUNCTUATION.matcher(m.group()).replaceFirst(""));
+        }
+        return found;
+    }
+
+    /**
+     * Stream failures of a report: structured <code>.jsonl</code> file if available, or text <code>.log</code> file
+     * written by older versions.
+     */
+    private void readFailures(File failureFile, FailureGroups groups) throws IOException, MavenReportException {
+        File jsonFile = FailureSink.getJsonFile(failureFile);
+        if (jsonFile.exists()) {
+            try (MappingIterator<FailureSink.Failure> it = FAILURE_READER.readValues(jsonFile)) {
+                while (it.hasNext()) {
+                    add(groups, it.next(), failureFile);
                 }
-                if (!urls.isEmpty()) {
-                    s.list();
-                    for (String url : urls) {
-                        s.listItem();
-                        s.link(url);
-                        s.text(url);
-                        s.link_();
-                        s.listItem_();
-                    }
-                    s.list_();
+            }
+        } else {
+            try (BufferedReader in = Files.newBufferedReader(failureFile.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    add(groups, new FailureSink.Failure(null, null, null, null, line), failureFile);
                 }
             }
+        }
+        groups.flush();
+    }
+
+    private void add(FailureGroups groups, FailureSink.Failure failure, File failureFile) throws MavenReportException {
+        if (failOnError) {
+            // failures were already filtered by ignore lists when written: first one is a real error
+            throw new MavenReportException("Error found in " + failureFile + ": " + failure.message());
+        }
+        groups.add(failure);
+    }
+
+    private boolean checkError(String failuresFilename) throws MavenReportException {
+        File failureFile = new File(failuresDirectory, failuresFilename);
+        if (!failureFile.exists()) {
+            return false;
+        }
+
+        String failure = failuresFilename.substring(0, failuresFilename.length() - 4);
+        Sink s = getSink();
+        s.section2();
+        s.sectionTitle2();
+        s.link("dist-tool-" + failure + ".html");
+        s.text(failure);
+        s.link_();
+        s.sectionTitle2_();
 
-            return failureFile.exists();
+        FailureGroups groups = new FailureGroups(s);
+        s.list();
+        try {
+            readFailures(failureFile, groups);
         } catch (IOException ioe) {
             throw new MavenReportException("Cannot read " + failureFile, ioe);
         }
+        s.list_();
+
+        s.paragraph();
+        s.text(groups.count + " failures for " + groups.artifacts.size() + " artifacts: " + groups.categoryCounts);
+        s.paragraph_();
+        s.section2_();
+
+        return true;
     }
 
     /**
@@ -121,6 +257,9 @@ public class DistCheckErrorsReport extends AbstractDistCheckReport {
     }
 
     /**
+     * <p>getFailuresFilename.</p>
+     *
+     * /**
      * <p>getFailuresFilename.</p>
      *
      * @return a {@link java.lang.String} object
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events of dist-tool reports: HTTP requests, report phases, and periodic statistics. Events
+ * cost nothing until a recording is started, for example with
+ * <code>jcmd &lt;pid&gt; JFR.start name=dist-tool</code> on a running build or <code>-XX:StartFlightRecording</code>
+ * in <code>MAVEN_OPTS</code>, then the recording can be analyzed with JDK Mission Control or <code>jfr print</code>.
+ */
+public final class DistToolEvents {
+    private static final AtomicLong ARTIFACTS_CHECKED = new AtomicLong();
+
+    static {
+        FlightRecorder.addPeriodicEvent(StatisticsEvent.class, DistToolEvents::emitStatistics);
+    }
+
+    private DistToolEvents() {}
+
+    /**
+     * A HTTP request sent by {@link HttpRetry} or {@link JsoupRetry}, retries included.
+     */
+    @Name("org.apache.maven.dist.tools.HttpRequest")
+    @Label("HTTP Request")
+    @Category({"Maven", "Dist Tool"})
+    @StackTrace(false)
+    static class HttpRequestEvent extends Event {
+        @Label("Method")
+        String method;
+
+        @Label("URL")
+        String url;
+
+        @Label("Host")
+        String host;
+
+        @Label("URL Class")
+        String urlClass;
+
+        @Label("Status")
+        @Description("Final response status, -1 if no response was received")
+        int status;
+
+        @Label("Body Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Retries")
+        int retries;
+
+        @Label("Cache")
+        @Description("hit or miss for a conditional request")
+        String cache;
+    }
+
+    /**
+     * A phase of a report: configuration loading, version resolution or check of an artifact, rendering.
+     */
+    @Name("org.apache.maven.dist.tools.ReportPhase")
+    @Label("Report Phase")
+    @Category({"Maven", "Dist Tool"})
+    @StackTrace(false)
+    static class ReportPhaseEvent extends Event {
+        @Label("Goal")
+        String goal;
+
+        @Label("Phase")
+        String phase;
+
+        @Label("Artifact")
+        @Description("groupId:artifactId of the artifact, for per artifact phases")
+        String artifact;
+    }
+
+    /**
+     * Counters and gauges of the build, emitted every second while recording.
+     */
+    @Name("org.apache.maven.dist.tools.Statistics")
+    @Label("Dist Tool Statistics")
+    @Category({"Maven", "Dist Tool"})
+    @Period("1 s")
+    @StackTrace(false)
+    static class StatisticsEvent extends Event {
+        @Label("Artifacts Checked")
+        long artifactsChecked;
+
+        @Label("HTTP Requests")
+        long httpRequests;
+
+        @Label("HTTP In Flight")
+        int httpInFlight;
+
+        @Label("HTTP Retries")
+        long httpRetries;
+
+        @Label("Cache Hits")
+        long cacheHits;
+
+        @Label("Cache Misses")
+        long cacheMisses;
+
+        @Label("Cache Hit Ratio")
+        @Description("Ratio of conditional requests answered by not modified, -1 without conditional request")
+        double cacheHitRatio;
+    }
+
+    private static void emitStatistics() {
+        StatisticsEvent event = new StatisticsEvent();
+        event.artifactsChecked = ARTIFACTS_CHECKED.get();
+        event.httpRequests = HttpMetrics.getRequestCount();
+        event.httpInFlight = HttpMetrics.getInFlight();
+        event.httpRetries = HttpMetrics.getRetryCount();
+        event.cacheHits = HttpMetrics.getCacheHitCount();
+        event.cacheMisses = HttpMetrics.getCacheMissCount();
+        long conditional = event.cacheHits + event.cacheMisses;
+        event.cacheHitRatio = conditional == 0 ? -1 : (double) event.cacheHits / conditional;
+        event.commit();
+    }
+
+    /**
+     * Start a HTTP request.
+     *
+     * @return the event, to {@link #endHttpRequest(HttpRequestEvent, HttpMetrics.Request)} when the request is done
+     */
+    static HttpRequestEvent beginHttpRequest() {
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End a HTTP request.
+     *
+     * @param event the event returned by {@link #beginHttpRequest()}
+     * @param request the request metrics
+     */
+    static void endHttpRequest(HttpRequestEvent event, HttpMetrics.Request request) {
+        if (event.shouldCommit()) {
+            event.method = request.method();
+            event.url = request.url();
+            event.host = request.host();
+            event.urlClass = request.urlClass();
+            event.status = request.status();
+            event.bytes = request.bytes();
+            event.retries = request.retries();
+            event.cache = request.cache();
+            event.commit();
+        }
+    }
+
+    /**
+     * Start a report phase.
+     *
+     * @param goal the report goal
+     * @param phase the phase name
+     * @param artifact the groupId:artifactId of the artifact, or <code>null</code> for report wide phases
+     * @return the event, to {@link #endPhase(ReportPhaseEvent)} when the phase is done
+     */
+    static ReportPhaseEvent beginPhase(String goal, String phase, String artifact) {
+        ReportPhaseEvent event = new ReportPhaseEvent();
+        event.goal = goal;
+        event.phase = phase;
+        event.artifact = artifact;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * End a report phase.
+     *
+     * @param event the event returned by {@link #beginPhase(String, String, String)}
+     */
+    static void endPhase(ReportPhaseEvent event) {
+        event.commit();
+    }
+
+    /**
+     * Count an artifact checked by a report.
+     */
+    static void artifactChecked() {
+        ARTIFACTS_CHECKED.incrementAndGet();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Failures of a report run: every failure is written as a text line to the <code>.log</code> file and as a JSON
+ * structured entry to the <code>.jsonl</code> file with the same base name.
+ * Files are opened once on first failure and kept open with buffered writers until the sink is closed.
+ * Writing is thread-safe.
+ */
+public class FailureSink implements Closeable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String EOL = System.lineSeparator();
+
+    /**
+     * A failure.
+     *
+     * @param artifact the failing artifact, as groupId:artifactId, or null if not related to an artifact
+     * @param version the artifact version, or null
+     * @param category the kind of failure, like missing-file, to group failures
+     * @param url the url where the failure can be seen, or null
+     * @param message the human readable message
+     */
+    public record Failure(String artifact, String version, String category, String url, String message) {}
+
+    private final File logFile;
+
+    private final File jsonFile;
+
+    private Writer log;
+
+    private Writer json;
+
+    /**
+     * Create a sink, deleting failure files from previous run: no failure file means no failure.
+     *
+     * @param logFile the text log file, with <code>.log</code> extension
+     */
+    public FailureSink(File logFile) {
+        this.logFile = logFile;
+        this.jsonFile = getJsonFile(logFile);
+        logFile.delete();
+        jsonFile.delete();
+    }
+
+    /**
+     * Get the structured failures file corresponding to a text log file.
+     *
+     * @param logFile the text log file, with <code>.log</code> extension
+     * @return the <code>.jsonl</code> file
+     */
+    public static File getJsonFile(File logFile) {
+        String name = logFile.getName();
+        return new File(logFile.getParentFile(), name.substring(0, name.lastIndexOf('.')) + ".jsonl");
+    }
+
+    /**
+     * Write a failure.
+     *
+     * @param failure the failure
+     * @throws IOException if the failure cannot be written
+     */
+    public synchronized void add(Failure failure) throws IOException {
+        if (log == null) {
+            logFile.getParentFile().mkdirs();
+            // append, in case of a new failure after close
+            log = Files.newBufferedWriter(logFile.toPath(), StandardCharsets.UTF_8, CREATE, APPEND);
+            json = Files.newBufferedWriter(jsonFile.toPath(), StandardCharsets.UTF_8, CREATE, APPEND);
+        }
+        log.write(failure.message());
+        log.write(EOL);
+        json.write(MAPPER.writeValueAsString(failure));
+        json.write('\n');
+    }
+
+    /**
+     * Flush and close files.
+     *
+     * @throws IOException if files cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (log != null) {
+            try (Writer l = log;
+                    Writer j = json) {
+                log = null;
+                json = null;
+            }
+        }
+    }
+}
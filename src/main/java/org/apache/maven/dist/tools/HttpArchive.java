@@ -0,0 +1,375 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import javax.net.ssl.SSLSession;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jsoup.HttpStatusException;
+
+/**
+ * Record/replay archive of HTTP responses read through {@link HttpRetry} and {@link JsoupRetry}, for offline and
+ * repeatable runs:
+ * <ul>
+ * <li><code>-Ddist-tool.http.record=dir</code> stores every response (url, status, headers and gzipped body) in
+ * <code>dir</code>,</li>
+ * <li><code>-Ddist-tool.http.replay=dir</code> serves every response from <code>dir</code>, without any network
+ * access: a url that was not recorded fails like an unreachable host.</li>
+ * </ul>
+ * Conditional request headers are ignored in both modes, so that the archive always contains full responses.
+ * A body that was not read completely while recording, like a site page probe, is stored truncated.
+ */
+class HttpArchive {
+    /** System property of the directory to record to. */
+    static final String RECORD_PROPERTY = "dist-tool.http.record";
+
+    /** System property of the directory to replay from. */
+    static final String REPLAY_PROPERTY = "dist-tool.http.replay";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Metadata of a recorded response.
+     *
+     * @param method the request method
+     * @param url the request url
+     * @param status the response status code
+     * @param headers the response headers
+     * @param truncated true if the body was not completely read while recording
+     */
+    record Entry(String method, String url, int status, Map<String, List<String>> headers, boolean truncated) {}
+
+    private final Path directory;
+
+    private final boolean replay;
+
+    private HttpArchive(Path directory, boolean replay) {
+        this.directory = directory;
+        this.replay = replay;
+    }
+
+    /** Archive selected by system properties, read on first use: empty for normal network access. */
+    private static volatile Optional<HttpArchive> shared;
+
+    /**
+     * Get the archive selected by system properties, shared by all requests of the build.
+     *
+     * @return the archive, or <code>null</code> for normal network access
+     */
+    static HttpArchive get() {
+        Optional<HttpArchive> archive = shared;
+        if (archive == null) {
+            synchronized (HttpArchive.class) {
+                archive = shared;
+                if (archive == null) {
+                    archive = Optional.ofNullable(fromSystemProperties());
+                    shared = archive;
+                }
+            }
+        }
+        return archive.orElse(null);
+    }
+
+    /**
+     * Forget the shared archive, the system properties being read again on next request.
+     */
+    static synchronized void clear() {
+        shared = null;
+    }
+
+    private static HttpArchive fromSystemProperties() {
+        String dir = System.getProperty(REPLAY_PROPERTY);
+        if (dir != null && !dir.isEmpty()) {
+            return new HttpArchive(Paths.get(dir), true);
+        }
+        dir = System.getProperty(RECORD_PROPERTY);
+        if (dir != null && !dir.isEmpty()) {
+            return new HttpArchive(Paths.get(dir), false);
+        }
+        return null;
+    }
+
+    boolean isReplay() {
+        return replay;
+    }
+
+    /**
+     * Replay a recorded GET response.
+     *
+     * @param url the url
+     * @return the response, with status 2xx
+     * @throws IOException if the url was not recorded, {@link HttpStatusException} for a recorded HTTP error status
+     */
+    HttpResponse<InputStream> replay(String url) throws IOException {
+        Entry entry = readEntry("GET", url);
+        Path body = directory.resolve(key("GET", url) + ".body.gz");
+        return new ArchivedResponse<>(
+                entry,
+                Files.isRegularFile(body)
+                        ? new GZIPInputStream(Files.newInputStream(body))
+                        : new ByteArrayInputStream(new byte[0]));
+    }
+
+    /**
+     * Replay a recorded HEAD response, or the headers of a recorded GET response.
+     *
+     * @param url the url
+     * @return the response, with status 2xx
+     * @throws IOException if the url was not recorded, {@link HttpStatusException} for a recorded HTTP error status
+     */
+    HttpResponse<Void> replayHead(String url) throws IOException {
+        return new ArchivedResponse<>(readEntry("HEAD", url), null);
+    }
+
+    private Entry readEntry(String method, String url) throws IOException {
+        Path metadata = directory.resolve(key(method, url) + ".json");
+        if ("HEAD".equals(method) && !Files.isRegularFile(metadata)) {
+            // a recorded GET has the same headers
+            metadata = directory.resolve(key("GET", url) + ".json");
+        }
+        if (!Files.isRegularFile(metadata)) {
+            throw new IOException("not in HTTP archive " + directory + ": " + method + " " + url);
+        }
+        Entry entry = MAPPER.readValue(metadata.toFile(), Entry.class);
+        if (entry.status() >= 400) {
+            throw new HttpStatusException("HTTP error fetching URL", entry.status(), url);
+        }
+        return entry;
+    }
+
+    /**
+     * Record a response, the body being recorded while it is read by the caller.
+     *
+     * @param <T> the body type: an {@link InputStream} is recorded, anything else is discarded
+     * @param method the request method
+     * @param url the request url, before any redirect
+     * @param response the response
+     * @return the response to use instead of the original one
+     * @throws IOException if the archive cannot be written
+     */
+    @SuppressWarnings("unchecked")
+    <T> HttpResponse<T> record(String method, String url, HttpResponse<T> response) throws IOException {
+        Files.createDirectories(directory);
+        Entry entry =
+                new Entry(method, url, response.statusCode(), response.headers().map(), false);
+        if (!(response.body() instanceof InputStream)) {
+            writeEntry(entry);
+            return response;
+        }
+        return (HttpResponse<T>)
+                new ArchivedResponse<>(entry, new RecordingInputStream((InputStream) response.body(), entry));
+    }
+
+    /**
+     * Record an HTTP error status.
+     *
+     * @param method the request method
+     * @param e the error
+     * @throws IOException if the archive cannot be written
+     */
+    void recordError(String method, HttpStatusException e) throws IOException {
+        Files.createDirectories(directory);
+        writeEntry(new Entry(method, e.getUrl(), e.getStatusCode(), Map.of(), false));
+    }
+
+    private void writeEntry(Entry entry) throws IOException {
+        Path tmp = Files.createTempFile(directory, "entry", ".tmp");
+        MAPPER.writeValue(tmp.toFile(), entry);
+        Files.move(
+                tmp,
+                directory.resolve(key(entry.method(), entry.url()) + ".json"),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static String key(String method, String url) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(md.digest((method + ' ' + url).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Copies the body to the archive while it is read, the entry being written on close.
+     */
+    private class RecordingInputStream extends FilterInputStream {
+        private final Entry entry;
+
+        private final Path tmp;
+
+        private final OutputStream out;
+
+        private boolean eof;
+
+        private boolean finished;
+
+        RecordingInputStream(InputStream in, Entry entry) throws IOException {
+            super(in);
+            this.entry = entry;
+            this.tmp = Files.createTempFile(directory, "body", ".tmp");
+            this.out = new GZIPOutputStream(Files.newOutputStream(tmp));
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                eof = true;
+                finish();
+            } else {
+                out.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n < 0) {
+                eof = true;
+                finish();
+            } else {
+                out.write(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // skipped bytes must be recorded too
+            return Math.max(0, read(new byte[(int) Math.min(n, 8192)]));
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                finish();
+            }
+        }
+
+        /**
+         * Write the entry, once the body was completely read or when the stream is closed.
+         */
+        private void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            out.close();
+            Files.move(
+                    tmp,
+                    directory.resolve(key(entry.method(), entry.url()) + ".body.gz"),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            writeEntry(new Entry(entry.method(), entry.url(), entry.status(), entry.headers(), !eof));
+        }
+    }
+
+    /**
+     * A response read from the archive, or being recorded.
+     */
+    private static class ArchivedResponse<T> implements HttpResponse<T> {
+        private final Entry entry;
+
+        private final T body;
+
+        private final URI uri;
+
+        ArchivedResponse(Entry entry, T body) {
+            this.entry = entry;
+            this.body = body;
+            this.uri = URI.create(entry.url());
+        }
+
+        @Override
+        public int statusCode() {
+            return entry.status();
+        }
+
+        @Override
+        public HttpRequest request() {
+            return HttpRequest.newBuilder(uri)
+                    .method(entry.method(), HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.of(entry.headers(), (name, value) -> true);
+        }
+
+        @Override
+        public T body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return uri;
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
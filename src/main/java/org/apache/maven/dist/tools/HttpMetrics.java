@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of every HTTP request sent by {@link HttpRetry} and {@link JsoupRetry}, kept in memory until the
+ * {@link PerformanceReport} run after other reports takes them to render and write them. Build wide counters are
+ * also published as {@link DistToolEvents} for JDK Flight Recorder.
+ */
+public final class HttpMetrics {
+    /** Maximum number of requests kept, to bound memory on very large runs. */
+    static final int MAX_REQUESTS = 100_000;
+
+    /** Cache status of a conditional request whose cached copy is still valid. */
+    public static final String CACHE_HIT = "hit";
+
+    /** Cache status of a conditional request whose cached copy is outdated. */
+    public static final String CACHE_MISS = "miss";
+
+    private static final Queue<Request> REQUESTS = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger SIZE = new AtomicInteger();
+
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    private static final AtomicLong REQUEST_COUNT = new AtomicLong();
+
+    private static final AtomicLong RETRY_COUNT = new AtomicLong();
+
+    private static final AtomicLong CACHE_HIT_COUNT = new AtomicLong();
+
+    private static final AtomicLong CACHE_MISS_COUNT = new AtomicLong();
+
+    private HttpMetrics() {}
+
+    /**
+     * Metrics of a request, retries included.
+     *
+     * @param timestamp the request start, in milliseconds since epoch
+     * @param method the request method
+     * @param url the requested url
+     * @param host the requested host
+     * @param urlClass the kind of resource, see {@link #classify(String)}
+     * @param status the final response status, -1 if no response was received
+     * @param bytes the number of body bytes read by the caller
+     * @param firstByteMillis the time to the final response headers, -1 if no response was received
+     * @param totalMillis the time until the body was read or closed
+     * @param retries the number of retries
+     * @param cache hit or miss for a conditional request, null otherwise
+     */
+    public record Request(
+            long timestamp,
+            String method,
+            String url,
+            String host,
+            String urlClass,
+            int status,
+            long bytes,
+            long firstByteMillis,
+            long totalMillis,
+            int retries,
+            String cache) {}
+
+    /**
+     * Get the requests recorded since the start of the build.
+     *
+     * @return the requests, in completion order
+     */
+    public static List<Request> getRequests() {
+        return new ArrayList<>(REQUESTS);
+    }
+
+    /**
+     * Take the requests recorded since the start of the build or the previous call, removing them from memory.
+     *
+     * @return the requests, in completion order
+     */
+    public static List<Request> drainRequests() {
+        List<Request> requests = new ArrayList<>();
+        Request request;
+        while ((request = REQUESTS.poll()) != null) {
+            SIZE.decrementAndGet();
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    static void clear() {
+        REQUESTS.clear();
+        SIZE.set(0);
+    }
+
+    static int getInFlight() {
+        return IN_FLIGHT.get();
+    }
+
+    static long getRequestCount() {
+        return REQUEST_COUNT.get();
+    }
+
+    static long getRetryCount() {
+        return RETRY_COUNT.get();
+    }
+
+    static long getCacheHitCount() {
+        return CACHE_HIT_COUNT.get();
+    }
+
+    static long getCacheMissCount() {
+        return CACHE_MISS_COUNT.get();
+    }
+
+    private static void add(Request request) {
+        REQUEST_COUNT.incrementAndGet();
+        RETRY_COUNT.addAndGet(request.retries());
+        if (CACHE_HIT.equals(request.cache())) {
+            CACHE_HIT_COUNT.incrementAndGet();
+        } else if (CACHE_MISS.equals(request.cache())) {
+            CACHE_MISS_COUNT.incrementAndGet();
+        }
+        if (SIZE.incrementAndGet() > MAX_REQUESTS) {
+            REQUESTS.poll();
+            SIZE.decrementAndGet();
+        }
+        REQUESTS.add(request);
+    }
+
+    /**
+     * Classify a url by the kind of resource, to compare costs of report steps.
+     *
+     * @param url the url
+     * @return one of <code>metadata</code>, <code>keys</code>, <code>jenkins</code>, <code>github</code>,
+     *         <code>ml-stats</code>, <code>committers</code>, <code>site</code>, <code>listing</code>,
+     *         <code>repository</code> or <code>other</code>
+     */
+    public static String classify(String url) {
+        String host = getHost(url);
+        if (url.endsWith("/maven-metadata.xml")) {
+            return "metadata";
+        } else if (url.endsWith("/KEYS")) {
+            return "keys";
+        } else if (host.startsWith("ci-")) {
+            return "jenkins";
+        } else if (host.equals("github.com")
+                || host.endsWith(".github.com")
+                || host.endsWith("githubusercontent.com")) {
+            return "github";
+        } else if (host.equals("lists.apache.org")) {
+            return "ml-stats";
+        } else if (host.equals("projects.apache.org")) {
+            return "committers";
+        } else if (host.equals("maven.apache.org")) {
+            return "site";
+        } else if (url.endsWith("/") || host.equals("gitbox.apache.org")) {
+            return "listing";
+        } else if (host.startsWith("repo")) {
+            return "repository";
+        }
+        return "other";
+    }
+
+    private static String getHost(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? "unknown" : host;
+        } catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * Measures of one request, across retries, recorded once when the body is read or closed, or when the request
+     * fails.
+     */
+    static class Exchange {
+        private final long timestamp = System.currentTimeMillis();
+
+        private final long start = System.nanoTime();
+
+        private final String method;
+
+        private final String url;
+
+        private final boolean conditional;
+
+        private final DistToolEvents.HttpRequestEvent event = DistToolEvents.beginHttpRequest();
+
+        private volatile long firstByte;
+
+        private volatile int retries;
+
+        private boolean recorded;
+
+        Exchange(String method, String url, boolean conditional) {
+            this.method = method;
+            this.url = url;
+            this.conditional = conditional;
+            IN_FLIGHT.incrementAndGet();
+        }
+
+        /**
+         * Wrap a body handler to measure the time to first byte, and the body read when it is an
+         * {@link InputStream}.
+         */
+        @SuppressWarnings("unchecked")
+        <T> HttpResponse.BodyHandler<T> wrap(HttpResponse.BodyHandler<T> handler) {
+            return info -> {
+                firstByte();
+                int status = info.statusCode();
+                return HttpResponse.BodySubscribers.mapping(
+                        handler.apply(info),
+                        body -> body instanceof InputStream && status < 400
+                                ? (T) new CountingInputStream((InputStream) body, status)
+                                : body);
+            };
+        }
+
+        void firstByte() {
+            firstByte = System.nanoTime();
+        }
+
+        void retry() {
+            retries++;
+        }
+
+        /**
+         * Record the request.
+         *
+         * @param status the final status, <code>-1</code> if no response was received
+         * @param bytes the body bytes read
+         */
+        synchronized void complete(int status, long bytes) {
+            if (recorded) {
+                return;
+            }
+            recorded = true;
+            IN_FLIGHT.decrementAndGet();
+            long end = System.nanoTime();
+            String cache = conditional ? (status == HttpRetry.HTTP_NOT_MODIFIED ? CACHE_HIT : CACHE_MISS) : null;
+            Request request = new Request(
+                    timestamp,
+                    method,
+                    url,
+                    getHost(url),
+                    classify(url),
+                    status,
+                    bytes,
+                    status < 0 || firstByte == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(firstByte - start),
+                    TimeUnit.NANOSECONDS.toMillis(end - start),
+                    retries,
+                    cache);
+            add(request);
+            DistToolEvents.endHttpRequest(event, request);
+        }
+
+        /**
+         * Counts body bytes, the request being recorded at end of stream or on close.
+         */
+        private class CountingInputStream extends FilterInputStream {
+            private final int status;
+
+            private long count;
+
+            CountingInputStream(InputStream in, int status) {
+                super(in);
+                this.status = status;
+            }
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b < 0) {
+                    complete(status, count);
+                } else {
+                    count++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n < 0) {
+                    complete(status, count);
+                } else {
+                    count += n;
+                }
+                return n;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long skipped = super.skip(n);
+                count += skipped;
+                return skipped;
+            }
+
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    complete(status, count);
+                }
+            }
+        }
+    }
+}
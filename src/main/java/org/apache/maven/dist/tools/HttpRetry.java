@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+import org.jsoup.HttpStatusException;
+
+/**
+ * Reads a url with the JDK HTTP client, retrying multiple times in case of IOException or server error.
+ * Contrary to {@link JsoupRetry}, the body is streamed: large files are never buffered in memory.
+ * Responses can be recorded to, or replayed from, a local {@link HttpArchive}, and requests can be routed to a local
+ * server for load tests. Every request sent is measured in {@link HttpMetrics}.
+ */
+public class HttpRetry {
+    /** Constant <code>MAX_RETRY=3</code> */
+    public static final int MAX_RETRY = 3;
+
+    /** Constant <code>WAIT_RETRY_SECONDS=10</code> */
+    public static final int WAIT_RETRY_SECONDS = 10;
+
+    /** User agent sent with every request. */
+    public static final String USER_AGENT =
+            "Mozilla/5.0 (Windows NT 6.1; Win64; x64; rv:25.0) Gecko/20100101 Firefox/25.0";
+
+    /** Http status not modified code, returned for a conditional request when the cached copy is still valid. */
+    public static final int HTTP_NOT_MODIFIED = 304;
+
+    /** System property of a local server that receives every http(s) request instead of the original host. */
+    static final String ORIGIN_PROPERTY = "dist-tool.http.origin";
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    private HttpRetry() {}
+
+    /**
+     * GET a url, the caller being responsible for closing the response body.
+     *
+     * @param url the url
+     * @return the response, with status 2xx or 304
+     * @throws IOException if the url cannot be read, {@link HttpStatusException} for an HTTP error status
+     */
+    public static HttpResponse<InputStream> get(String url) throws IOException {
+        return get(url, Collections.emptyMap());
+    }
+
+    /**
+     * GET a url with additional request headers, like <code>If-None-Match</code> for a conditional request.
+     * The caller is responsible for closing the response body.
+     *
+     * @param url the url
+     * @param headers additional request headers
+     * @return the response, with status 2xx or 304
+     * @throws IOException if the url cannot be read, {@link HttpStatusException} for an HTTP error status
+     */
+    public static HttpResponse<InputStream> get(String url, Map<String, String> headers) throws IOException {
+        HttpArchive archive = HttpArchive.get();
+        if (archive != null && archive.isReplay()) {
+            return archive.replay(url);
+        }
+
+        HttpRequest.Builder builder = newRequest(url).GET();
+        headers.forEach((name, value) -> {
+            if (archive == null || !isConditional(name)) {
+                builder.header(name, value);
+            }
+        });
+        return send(archive, "GET", url, builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /**
+     * HEAD a url, to get headers like <code>Content-Length</code> or <code>ETag</code> without the body.
+     *
+     * @param url the url
+     * @return the response, with status 2xx
+     * @throws IOException if the url cannot be read, {@link HttpStatusException} for an HTTP error status
+     */
+    public static HttpResponse<Void> head(String url) throws IOException {
+        HttpArchive archive = HttpArchive.get();
+        if (archive != null && archive.isReplay()) {
+            return archive.replayHead(url);
+        }
+
+        return send(
+                archive,
+                "HEAD",
+                url,
+                newRequest(url)
+                        .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    /**
+     * Open a stream on a url content, <code>file:</code> urls being read directly from a local mirror.
+     *
+     * @param url the url
+     * @return the content stream, to be closed by the caller
+     * @throws IOException if the url cannot be read
+     */
+    public static InputStream openStream(String url) throws IOException {
+        if (isFile(url)) {
+            return Files.newInputStream(Paths.get(URI.create(url)));
+        }
+        return get(url).body();
+    }
+
+    /**
+     * Check if a url is a <code>file:</code> url, pointing to a local mirror.
+     *
+     * @param url the url
+     * @return <code>true</code> for a local file
+     */
+    public static boolean isFile(String url) {
+        return url.startsWith("file:");
+    }
+
+    /**
+     * GET a small text file, like a checksum.
+     *
+     * @param url the url
+     * @return the content
+     * @throws IOException if the url cannot be read
+     */
+    public static String getString(String url) throws IOException {
+        try (InputStream in = openStream(url)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Check if requests are routed to a local server, with <code>-Ddist-tool.http.origin=http://localhost:port</code>.
+     *
+     * @return <code>true</code> if requests are routed
+     */
+    static boolean isRouted() {
+        String origin = System.getProperty(ORIGIN_PROPERTY);
+        return origin != null && !origin.isEmpty();
+    }
+
+    /**
+     * Get the url to request: when routed to a local server, <code>https://host/path?query</code> is requested as
+     * <code>http://localhost:port/host/path?query</code>.
+     *
+     * @param url the original url
+     * @return the url to request
+     */
+    static String route(String url) {
+        if (!isRouted() || isFile(url)) {
+            return url;
+        }
+        URI uri = URI.create(url);
+        return System.getProperty(ORIGIN_PROPERTY)
+                + '/'
+                + uri.getRawAuthority()
+                + uri.getRawPath()
+                + (uri.getRawQuery() == null ? "" : '?' + uri.getRawQuery());
+    }
+
+    private static boolean isConditional(String header) {
+        return header.regionMatches(true, 0, "If-", 0, 3);
+    }
+
+    private static <T> HttpResponse<T> send(
+            HttpArchive archive, String method, String url, HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException {
+        if (archive == null) {
+            return send(url, request, handler);
+        }
+        try {
+            return archive.record(method, url, send(url, request, handler));
+        } catch (HttpStatusException e) {
+            archive.recordError(method, e);
+            throw e;
+        }
+    }
+
+    private static HttpRequest.Builder newRequest(String url) {
+        return HttpRequest.newBuilder(URI.create(route(url)))
+                .header("User-Agent", USER_AGENT)
+                .timeout(Duration.ofSeconds(60));
+    }
+
+    private static <T> HttpResponse<T> send(String url, HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException {
+        HttpMetrics.Exchange exchange = new HttpMetrics.Exchange(
+                request.method(), url, request.headers().map().keySet().stream().anyMatch(HttpRetry::isConditional));
+        for (int i = 1; i <= MAX_RETRY; i++) {
+            HttpResponse<T> response;
+            try {
+                response = CLIENT.send(request, exchange.wrap(handler));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.complete(-1, 0);
+                throw new InterruptedIOException("interrupted while reading " + url);
+            } catch (IOException ioe) {
+                System.err.println("IOException try " + i + " while reading " + url + ": " + ioe.getClass() + " "
+                        + ioe.getMessage());
+
+                if (i == MAX_RETRY) {
+                    exchange.complete(-1, 0);
+                    throw new IOException("IOException while reading " + url, ioe);
+                }
+                exchange.retry();
+                waitRetry();
+                continue;
+            }
+
+            int status = response.statusCode();
+            if (status < 400) {
+                if (!(response.body() instanceof InputStream)) {
+                    // no body read by the caller: complete now, a streamed body being recorded once read
+                    exchange.complete(status, 0);
+                }
+                return response;
+            }
+            close(response);
+            if (status < 500 || i == MAX_RETRY) {
+                exchange.complete(status, 0);
+                throw new HttpStatusException("HTTP error fetching URL", status, url);
+            }
+            System.err.println("HTTP " + status + " try " + i + " while reading " + url);
+            exchange.retry();
+            waitRetry();
+        }
+
+        throw new IOException("unable to read " + url);
+    }
+
+    private static void close(HttpResponse<?> response) throws IOException {
+        if (response.body() instanceof InputStream) {
+            ((InputStream) response.body()).close();
+        }
+    }
+
+    private static void waitRetry() {
+        try {
+            Thread.sleep(WAIT_RETRY_SECONDS * 1000);
+        } catch (InterruptedException e) {
+            // not expected to happen
+        }
+    }
+}
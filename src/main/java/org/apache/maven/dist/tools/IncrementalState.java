@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Results of a previous run with the fingerprint of their inputs, used by incremental mode to skip artifacts whose
+ * inputs did not change.
+ */
+class IncrementalState {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Previous result of an artifact check.
+     *
+     * @param fingerprint the fingerprint of the check inputs
+     * @param result the result
+     * @param failures failure lines written while checking the artifact
+     */
+    record Entry(String fingerprint, ResultRecord result, List<FailureSink.Failure> failures) {}
+
+    /**
+     * Serialized form.
+     *
+     * @param lastFullRun time of the last run that checked every artifact, in milliseconds since epoch
+     * @param entries entries by configuration line key, see {@link ConfigurationLineInfo#getKey()}
+     */
+    record State(long lastFullRun, Map<String, Entry> entries) {}
+
+    private IncrementalState() {}
+
+    /**
+     * Load a previous state.
+     *
+     * @param file the state file
+     * @param maxAgeMillis maximum age of the last full run: an older state is ignored, forcing a full run
+     * @return the state, empty when the file does not exist or is too old
+     * @throws IOException if the file exists but cannot be read
+     */
+    static State load(File file, long maxAgeMillis) throws IOException {
+        if (file.isFile()) {
+            try {
+                State state = MAPPER.readValue(file, State.class);
+                if (System.currentTimeMillis() - state.lastFullRun() <= maxAgeMillis) {
+                    return state;
+                }
+            } catch (JsonProcessingException e) {
+                // written by an incompatible version: full run
+            }
+        }
+        return new State(System.currentTimeMillis(), new HashMap<>());
+    }
+
+    /**
+     * Save a state.
+     *
+     * @param file the state file
+     * @param state the state
+     * @throws IOException if the file cannot be written
+     */
+    static void save(File file, State state) throws IOException {
+        file.getParentFile().mkdirs();
+        MAPPER.writeValue(file, state);
+    }
+}
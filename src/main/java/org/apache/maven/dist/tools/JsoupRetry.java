@@ -18,13 +18,25 @@
  */
 package org.apache.maven.dist.tools;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
 
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 
 /**
  * Reads a url with Jsoup, retrying multiple times in case of IOException.
+ * <code>file:</code> urls are read from a local mirror, a directory being rendered as a directory index.
+ * When an {@link HttpArchive} is used or requests are routed to a local server, pages are read through
+ * {@link HttpRetry}, the document keeping its original url.
  */
 public class JsoupRetry {
     /** Constant <code>MAX_RETRY=3</code> */
@@ -46,19 +58,37 @@ public class JsoupRetry {
      * @throws java.io.IOException if any.
      */
     public static Document get(String url) throws IOException {
+        if (HttpRetry.isFile(url)) {
+            return getFile(url);
+        }
+        if (HttpArchive.get() != null || HttpRetry.isRouted()) {
+            // recorded, replayed or routed through the shared HTTP layer
+            try (InputStream in = new NoAvailableInputStream(HttpRetry.openStream(url))) {
+                return Jsoup.parse(in, null, url);
+            }
+        }
+
+        HttpMetrics.Exchange exchange = new HttpMetrics.Exchange("GET", url, false);
         for (int i = 1; i <= MAX_RETRY; i++) {
             try {
-                return Jsoup.connect(url)
-                        .userAgent("Mozilla/5.0 (Windows NT 6.1; Win64; x64; rv:25.0) Gecko/20100101 Firefox/25.0")
+                Connection.Response response = Jsoup.connect(url)
+                        .userAgent(HttpRetry.USER_AGENT)
                         .maxBodySize(0)
-                        .get();
+                        .execute();
+                exchange.firstByte();
+                response.bufferUp();
+                exchange.complete(response.statusCode(), response.bodyAsBytes().length);
+                return response.parse();
             } catch (IOException ioe) {
                 System.err.println("IOException try " + i + " while reading " + url + ": " + ioe.getClass() + " "
                         + ioe.getMessage());
 
                 if (i == MAX_RETRY) {
+                    exchange.complete(
+                            ioe instanceof HttpStatusException ? ((HttpStatusException) ioe).getStatusCode() : -1, 0);
                     throw new IOException("IOException while reading " + url, ioe);
                 }
+                exchange.retry();
             }
 
             try {
@@ -70,4 +100,36 @@ public class JsoupRetry {
 
         return null;
     }
+
+    private static Document getFile(String url) throws IOException {
+        Path path = Paths.get(URI.create(url));
+        if (!Files.isDirectory(path)) {
+            return Jsoup.parse(path.toFile(), null, url);
+        }
+
+        Document doc = Document.createShell(url);
+        try (Stream<Path> children = Files.list(path)) {
+            children.map(p -> p.getFileName() + (Files.isDirectory(p) ? "/" : ""))
+                    .sorted()
+                    .forEach(name ->
+                            doc.body().appendElement("a").attr("href", name).text(name));
+        }
+        return doc;
+    }
+
+    /**
+     * Stream that never reports bytes available without blocking. The HttpClient body stream still reports 1 byte
+     * available at end of body, and jsoup then drops the end of a page slightly larger than the 5 KB buffer it reads
+     * first to detect the charset. 0 is always a valid estimate, and jsoup keeps reading until end of stream.
+     */
+    private static class NoAvailableInputStream extends FilterInputStream {
+        NoAvailableInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+    }
 }
@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.reporting.MavenReportException;
+
+/**
+ * Report of HTTP requests sent by the reports run before it in the same build, from {@link HttpMetrics}: per host
+ * and per url class percentiles, and slowest urls. Every request is also written to
+ * <code>dist-tool-performance.jsonl</code>, next to the report.
+ */
+@Mojo(name = "performance", requiresProject = false)
+public class PerformanceReport extends AbstractDistCheckReport {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Number of slowest urls displayed.
+     */
+    @Parameter(property = "slowestUrls", defaultValue = "20")
+    protected int slowestUrls;
+
+    /**
+     * Performance Report constructor.
+     */
+    public PerformanceReport() {}
+
+    /**
+     * Statistics of a group of requests.
+     */
+    static class Stats {
+        final int count;
+
+        final int errors;
+
+        final int retries;
+
+        final int cacheHits;
+
+        final long bytes;
+
+        final long[] totalMillis;
+
+        final long[] firstByteMillis;
+
+        Stats(List<HttpMetrics.Request> requests) {
+            count = requests.size();
+            errors = (int) requests.stream()
+                    .filter(r -> r.status() < 0 || r.status() >= 400)
+                    .count();
+            retries = requests.stream().mapToInt(HttpMetrics.Request::retries).sum();
+            cacheHits = (int) requests.stream()
+                    .filter(r -> HttpMetrics.CACHE_HIT.equals(r.cache()))
+                    .count();
+            bytes = requests.stream().mapToLong(HttpMetrics.Request::bytes).sum();
+            totalMillis = requests.stream()
+                    .mapToLong(HttpMetrics.Request::totalMillis)
+                    .sorted()
+                    .toArray();
+            firstByteMillis = requests.stream()
+                    .mapToLong(HttpMetrics.Request::firstByteMillis)
+                    .filter(t -> t >= 0)
+                    .sorted()
+                    .toArray();
+        }
+
+        /**
+         * Nearest-rank percentile.
+         *
+         * @param sorted the sorted values
+         * @param percentile the percentile, between 0 and 100
+         * @return the value, or <code>-1</code> if there is no value
+         */
+        static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return -1;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            return sorted[Math.max(0, Math.min(rank, sorted.length) - 1)];
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void executeReport(Locale locale) throws MavenReportException {
+        // taken: not kept in memory for the rest of the build once written
+        List<HttpMetrics.Request> requests = HttpMetrics.drainRequests();
+        writeRequests(requests);
+
+        Sink sink = getSink();
+        sink.head();
+        sink.title();
+        sink.text("Performance");
+        sink.title_();
+        sink.head_();
+        sink.body();
+
+        sink.section1();
+        sink.sectionTitle1();
+        sink.text("HTTP Requests");
+        sink.sectionTitle1_();
+        sink.paragraph();
+        if (requests.isEmpty()) {
+            sink.text("No HTTP request recorded: this report must run after other reports, in the same build.");
+            sink.paragraph_();
+            sink.section1_();
+            sink.body_();
+            return;
+        }
+        Stats all = new Stats(requests);
+        sink.text(all.count + " requests to "
+                + requests.stream().map(HttpMetrics.Request::host).distinct().count() + " hosts, " + all.errors
+                + " failed, " + all.retries + " retries, "
+                + (all.bytes / 1024) + " KiB read. Times are in milliseconds, ");
+        sink.link(getOutputName() + ".jsonl");
+        sink.text("every request");
+        sink.link_();
+        sink.text(" is available as JSON Lines.");
+        sink.paragraph_();
+        sink.section1_();
+
+        renderGroups(sink, "Hosts", groupBy(requests, HttpMetrics.Request::host));
+        renderGroups(sink, "URL Classes", groupBy(requests, HttpMetrics.Request::urlClass));
+        renderSlowest(sink, requests);
+
+        sink.body_();
+    }
+
+    private static Map<String, List<HttpMetrics.Request>> groupBy(
+            List<HttpMetrics.Request> requests, Function<HttpMetrics.Request, String> key) {
+        return requests.stream().collect(Collectors.groupingBy(key, TreeMap::new, Collectors.toList()));
+    }
+
+    private void renderGroups(Sink sink, String title, Map<String, List<HttpMetrics.Request>> groups) {
+        sink.section1();
+        sink.sectionTitle1();
+        sink.text(title);
+        sink.sectionTitle1_();
+        sink.table();
+        sink.tableRows(null, false);
+        headerRow(
+                sink,
+                title.substring(0, title.length() - 1),
+                "Requests",
+                "Errors",
+                "Retries",
+                "Cache Hits",
+                "KiB",
+                "First Byte p50",
+                "p50",
+                "p90",
+                "p99",
+                "Max");
+        for (Map.Entry<String, List<HttpMetrics.Request>> group : groups.entrySet()) {
+            Stats stats = new Stats(group.getValue());
+            row(
+                    sink,
+                    group.getKey(),
+                    stats.count,
+                    stats.errors,
+                    stats.retries,
+                    stats.cacheHits,
+                    stats.bytes / 1024,
+                    Stats.percentile(stats.firstByteMillis, 50),
+                    Stats.percentile(stats.totalMillis, 50),
+                    Stats.percentile(stats.totalMillis, 90),
+                    Stats.percentile(stats.totalMillis, 99),
+                    Stats.percentile(stats.totalMillis, 100));
+        }
+        sink.tableRows_();
+        sink.table_();
+        sink.section1_();
+    }
+
+    private void renderSlowest(Sink sink, List<HttpMetrics.Request> requests) {
+        sink.section1();
+        sink.sectionTitle1();
+        sink.text("Slowest URLs");
+        sink.sectionTitle1_();
+        sink.table();
+        sink.tableRows(null, false);
+        headerRow(sink, "URL", "Class", "Status", "Bytes", "First Byte", "Total", "Retries");
+        requests.stream()
+                .sorted(Comparator.comparingLong(HttpMetrics.Request::totalMillis)
+                        .reversed())
+                .limit(slowestUrls)
+                .forEach(r -> {
+                    sink.tableRow();
+                    sink.tableCell();
+                    sink.link(r.url());
+                    sink.text(r.url());
+                    sink.link_();
+                    sink.tableCell_();
+                    cells(sink, r.urlClass(), r.status(), r.bytes(), r.firstByteMillis(), r.totalMillis(), r.retries());
+                    sink.tableRow_();
+                });
+        sink.tableRows_();
+        sink.table_();
+        sink.section1_();
+    }
+
+    private static void headerRow(Sink sink, String... headers) {
+        sink.tableRow();
+        for (String header : headers) {
+            sink.tableHeaderCell();
+            sink.text(header);
+            sink.tableHeaderCell_();
+        }
+        sink.tableRow_();
+    }
+
+    private static void row(Sink sink, Object... values) {
+        sink.tableRow();
+        cells(sink, values);
+        sink.tableRow_();
+    }
+
+    private static void cells(Sink sink, Object... values) {
+        Arrays.stream(values).forEach(value -> {
+            sink.tableCell();
+            sink.text(String.valueOf(value));
+            sink.tableCell_();
+        });
+    }
+
+    private void writeRequests(List<HttpMetrics.Request> requests) throws MavenReportException {
+        File file = new File(outputDirectory, getOutputName() + ".jsonl");
+        file.getParentFile().mkdirs();
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (HttpMetrics.Request request : requests) {
+                out.write(MAPPER.writeValueAsString(request));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new MavenReportException("error while writing " + file, e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean isIndexPageCheck() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void checkArtifact(ConfigurationLineInfo request, String repoBase) {}
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getFailuresFilename() {
+        return "performance";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getOutputName() {
+        return "dist-tool-performance";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getName(Locale locale) {
+        return "Dist Tool> Performance";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getDescription(Locale locale) {
+        return "Dist Tool report of HTTP request timings per host, per url class, and slowest urls";
+    }
+}
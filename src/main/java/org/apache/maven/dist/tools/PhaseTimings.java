@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Time spent by a report in each phase, in total and per artifact: configuration loading, then version resolution
+ * and check of every artifact, then rendering. Each phase is also emitted as a {@link DistToolEvents} JFR event.
+ * Checks run concurrently on the report executor are added to their artifact time only: the report total counts the
+ * time spent waiting for them instead.
+ */
+class PhaseTimings {
+    static final String CONFIGURATION = "configuration";
+
+    static final String VERSION = "version";
+
+    static final String CHECK = "check";
+
+    static final String RENDER = "render";
+
+    private final String goal;
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    private final Map<String, Map<String, Long>> artifacts = new LinkedHashMap<>();
+
+    /**
+     * A running phase.
+     */
+    class Phase {
+        private final String name;
+
+        private final String artifact;
+
+        private final long start = System.nanoTime();
+
+        private final boolean concurrent;
+
+        private final DistToolEvents.ReportPhaseEvent event;
+
+        private Phase(String name, String artifact, boolean concurrent) {
+            this.name = name;
+            this.artifact = artifact;
+            this.concurrent = concurrent;
+            this.event = DistToolEvents.beginPhase(goal, name, artifact);
+        }
+
+        /**
+         * End the phase and add its duration to the report totals, or only to the artifact for a concurrent phase.
+         */
+        void end() {
+            DistToolEvents.endPhase(event);
+            long nanos = System.nanoTime() - start;
+            if (concurrent) {
+                addArtifact(name, artifact, nanos);
+            } else {
+                add(name, artifact, nanos);
+            }
+        }
+    }
+
+    PhaseTimings(String goal) {
+        this.goal = goal;
+    }
+
+    /**
+     * Start a phase.
+     *
+     * @param name the phase name
+     * @param artifact the groupId:artifactId for per artifact phases, <code>null</code> for report wide phases
+     * @return the running phase
+     */
+    Phase start(String name, String artifact) {
+        return new Phase(name, artifact, false);
+    }
+
+    /**
+     * Start a phase of an artifact run on the report executor, concurrently with other artifacts.
+     *
+     * @param name the phase name
+     * @param artifact the groupId:artifactId
+     * @return the running phase
+     */
+    Phase startConcurrent(String name, String artifact) {
+        return new Phase(name, artifact, true);
+    }
+
+    synchronized void add(String name, String artifact, long nanos) {
+        phases.merge(name, nanos, Long::sum);
+        if (artifact != null) {
+            addArtifact(name, artifact, nanos);
+        }
+    }
+
+    private synchronized void addArtifact(String name, String artifact, long nanos) {
+        artifacts.computeIfAbsent(artifact, a -> new LinkedHashMap<>()).merge(name, nanos, Long::sum);
+    }
+
+    /**
+     * Get the time spent by the report in a phase.
+     *
+     * @param name the phase name
+     * @return the milliseconds
+     */
+    synchronized long getMillis(String name) {
+        return toMillis(phases.getOrDefault(name, 0L));
+    }
+
+    /**
+     * Get the time spent for an artifact in each phase, as result details.
+     *
+     * @param artifact the groupId:artifactId
+     * @return the milliseconds per phase, with <code>Millis</code> suffixed keys, empty if the artifact is unknown
+     */
+    synchronized Map<String, String> getDetails(String artifact) {
+        Map<String, Long> times = artifacts.get(artifact);
+        if (times == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> details = new LinkedHashMap<>();
+        times.forEach((phase, nanos) -> details.put(phase + "Millis", String.valueOf(toMillis(nanos))));
+        return details;
+    }
+
+    /**
+     * Get the slowest artifacts, by total time of their phases.
+     *
+     * @param count the maximum number of artifacts
+     * @return the groupId:artifactId, slowest first
+     */
+    synchronized List<String> getSlowest(int count) {
+        Map<String, Long> totals = new HashMap<>();
+        artifacts.forEach((artifact, times) -> totals.put(
+                artifact, times.values().stream().mapToLong(Long::longValue).sum()));
+        return totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(count)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Log the time of each phase, then the slowest artifacts.
+     *
+     * @param log the log
+     * @param count the number of slowest artifacts to log
+     */
+    synchronized void log(Log log, int count) {
+        if (phases.isEmpty()) {
+            return;
+        }
+        log.info(goal + " phases: "
+                + phases.entrySet().stream()
+                        .map(e -> e.getKey() + ' ' + toMillis(e.getValue()) + " ms")
+                        .collect(Collectors.joining(", ")));
+
+        List<String> slowest = getSlowest(count);
+        if (slowest.isEmpty()) {
+            return;
+        }
+        log.info(goal + " slowest artifacts:");
+        for (String artifact : slowest) {
+            Map<String, Long> times = artifacts.get(artifact);
+            long total = times.values().stream().mapToLong(Long::longValue).sum();
+            log.info(String.format(
+                    "  %6d ms  %s (%s)",
+                    toMillis(total),
+                    artifact,
+                    times.entrySet().stream()
+                            .map(e -> e.getKey() + ' ' + toMillis(e.getValue()) + " ms")
+                            .collect(Collectors.joining(", "))));
+        }
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
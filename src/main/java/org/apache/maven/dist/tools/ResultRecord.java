@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine readable result of a check, common to every report: exported as JSON Lines and CSV next to the HTML report
+ * by {@link ResultsWriter}.
+ *
+ * @param report the report goal, like check-source-release
+ * @param groupId the checked groupId, null when the check is not about an artifact
+ * @param artifactId the checked artifactId, or the Git repository name for jobs reports
+ * @param version the checked version, null when the check is not about an artifact
+ * @param status the check status
+ * @param issues human readable issues found, empty when status is {@link Status#OK}
+ * @param details report specific values, like checked urls
+ */
+public record ResultRecord(
+        String report,
+        String groupId,
+        String artifactId,
+        String version,
+        Status status,
+        List<String> issues,
+        Map<String, String> details) {
+
+    /** Detail with the version range of the configuration line, when the same artifact is checked on several lines. */
+    public static final String VERSION_RANGE = "versionRange";
+
+    /**
+     * Get the key of the configuration line of this record (not a getter, to keep it out of JSON).
+     *
+     * @return the key
+     * @see ConfigurationLineInfo#getKey()
+     */
+    public String key() {
+        return ConfigurationLineInfo.getKey(groupId, artifactId, details.get(VERSION_RANGE));
+    }
+
+    /**
+     * Check status.
+     */
+    public enum Status {
+        /** Nothing to fix. */
+        OK,
+        /** Something to look at, not considered as a failure. */
+        WARNING,
+        /** Failure. */
+        ERROR;
+
+        /**
+         * Get the status of a check from its issues.
+         *
+         * @param errors error issues
+         * @param warnings warning issues
+         * @return the status
+         */
+        public static Status of(List<String> errors, List<String> warnings) {
+            if (!errors.isEmpty()) {
+                return ERROR;
+            }
+            return warnings.isEmpty() ? OK : WARNING;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Write check results as JSON Lines (<code>.jsonl</code>, one {@link ResultRecord} per line) and CSV
+ * (<code>.csv</code>, issues and details being flattened into one column each), for dashboards and tools that
+ * should not have to scrape generated HTML.
+ */
+public final class ResultsWriter {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String CSV_HEADER = "report,groupId,artifactId,version,status,issues,details";
+
+    private ResultsWriter() {}
+
+    /**
+     * Write results next to a report.
+     *
+     * @param directory the report output directory
+     * @param outputName the report output name, without extension
+     * @param records the results
+     * @throws IOException if files cannot be written
+     */
+    public static void write(File directory, String outputName, List<ResultRecord> records) throws IOException {
+        directory.mkdirs();
+
+        try (Writer out =
+                Files.newBufferedWriter(new File(directory, outputName + ".jsonl").toPath(), StandardCharsets.UTF_8)) {
+            for (ResultRecord record : records) {
+                out.write(MAPPER.writeValueAsString(record));
+                out.write('\n');
+            }
+        }
+
+        try (Writer out =
+                Files.newBufferedWriter(new File(directory, outputName + ".csv").toPath(), StandardCharsets.UTF_8)) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+            for (ResultRecord record : records) {
+                out.write(String.join(
+                        ",",
+                        csv(record.report()),
+                        csv(record.groupId()),
+                        csv(record.artifactId()),
+                        csv(record.version()),
+                        csv(String.valueOf(record.status())),
+                        csv(String.join("; ", record.issues())),
+                        csv(flatten(record.details()))));
+                out.write('\n');
+            }
+        }
+    }
+
+    private static String flatten(Map<String, String> details) {
+        return details.entrySet().stream()
+                .map(e -> e.getKey() + '=' + e.getValue())
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Quote a CSV value when required, as defined in RFC 4180.
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.archives;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+import org.apache.maven.dist.tools.AbstractDistCheckReport;
+import org.apache.maven.dist.tools.ConfigurationLineInfo;
+import org.apache.maven.dist.tools.FailureSink;
+import org.apache.maven.dist.tools.ResultRecord;
+import org.apache.maven.doxia.sink.Sink;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.reporting.MavenReportException;
+
+/**
+ * Detect site archives of non-latest patch releases, to be deleted since only one site archive is kept per minor
+ * version <code>x.y</code>. Archives are found in every <code>*-archives/</code> directory of Maven and Doxia
+ * website components trees in SVN.
+ */
+@Mojo(name = "check-site-archives", requiresProject = false)
+public class CheckSiteArchivesReport extends AbstractDistCheckReport {
+    /** Constant <code>FAILURES_FILENAME="check-site-archives.log"</code> */
+    public static final String FAILURES_FILENAME = "check-site-archives.log";
+
+    private static final String WEBSITE_STRUCTURE_URL = "https://maven.apache.org/developers/website/index.html";
+
+    /**
+     * SVN website components trees, whose <code>*-archives/</code> subdirectories are checked.
+     */
+    @Parameter(
+            property = "componentsUrls",
+            defaultValue = "https://svn.apache.org/repos/asf/maven/website/components/,"
+                    + "https://svn.apache.org/repos/asf/maven/doxia/website/components/")
+    protected List<String> componentsUrls;
+
+    /**
+     * Maximum number of concurrent listing requests sent to the same host.
+     */
+    @Parameter(property = "maxRequestsPerHost", defaultValue = "4")
+    protected int maxRequestsPerHost;
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    /**
+     * Check Site Archives report.
+     */
+    public CheckSiteArchivesReport() {}
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getFailuresFilename() {
+        return FAILURES_FILENAME;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getName(Locale locale) {
+        return "Dist Tool> Check Site Archives";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getDescription(Locale locale) {
+        return "Detection of non-latest patch release site archives, to be deleted";
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean isIndexPageCheck() {
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void checkArtifact(ConfigurationLineInfo request, String repoBase) {}
+
+    /** {@inheritDoc} */
+    @Override
+    protected void executeReport(Locale locale) throws MavenReportException {
+        startFailures();
+
+        File snapshotFile = new File(cacheDirectory, "site-archives-listings.json");
+        ListingSnapshot snapshot;
+        try {
+            snapshot = ListingSnapshot.load(snapshotFile);
+        } catch (IOException ioe) {
+            throw new MavenReportException("cannot read " + snapshotFile, ioe);
+        }
+
+        // components trees, then their *-archives/ roots, each level listed concurrently
+        Map<String, List<String>> components = listAll(snapshot, componentsUrls);
+        List<String> roots = new ArrayList<>();
+        components.forEach((url, directories) ->
+                directories.stream().filter(d -> d.endsWith("-archives")).forEach(d -> roots.add(url + d + '/')));
+        Map<String, List<String>> listings = listAll(snapshot, roots);
+
+        try {
+            snapshot.save();
+        } catch (IOException ioe) {
+            getLog().warn("cannot write " + snapshotFile + ": " + ioe.getMessage());
+        }
+
+        List<SiteArchive> archives = new ArrayList<>();
+        listings.forEach((root, directories) -> directories.stream()
+                .map(d -> SiteArchive.parse(root, d))
+                .filter(a -> a != null)
+                .forEach(archives::add));
+        List<SiteArchive.Minor> minors = SiteArchive.groupByMinor(archives);
+        List<SiteArchive.Minor> toClean =
+                minors.stream().filter(m -> !m.superseded().isEmpty()).collect(Collectors.toList());
+        int candidates = toClean.stream().mapToInt(m -> m.superseded().size()).sum();
+        getLog().info("Site archives: " + archives.size() + " archives in " + listings.size() + " roots, "
+                + candidates + " deletion candidates, " + snapshot.getUnchanged() + '/' + snapshot.getListed()
+                + " directories unchanged since previous run");
+
+        Sink sink = getSink();
+        sink.head();
+        sink.title();
+        sink.text("Check Site Archives");
+        sink.title_();
+        sink.head_();
+        sink.body();
+
+        sink.section1();
+        sink.paragraph();
+        sink.text("Only one site archive is kept per minor version x.y: site archives of non-latest patch releases"
+                + " are listed here to be deleted. See ");
+        sink.link(WEBSITE_STRUCTURE_URL);
+        sink.text("Maven website structure");
+        sink.link_();
+        sink.text(" for details on site vs components.");
+        sink.paragraph_();
+        sink.paragraph();
+        sink.text(archives.size() + " site archives found in " + listings.size() + " archives directories of ");
+        for (int i = 0; i < componentsUrls.size(); i++) {
+            sink.text(i == 0 ? "" : " and ");
+            sink.link(componentsUrls.get(i));
+            sink.text(componentsUrls.get(i));
+            sink.link_();
+        }
+        sink.text(": " + candidates + " deletion candidates.");
+        sink.paragraph_();
+        sink.section1_();
+
+        for (String root : roots) {
+            renderRoot(
+                    sink,
+                    root,
+                    listings.containsKey(root),
+                    toClean.stream().filter(m -> m.root().equals(root)).collect(Collectors.toList()));
+        }
+
+        sink.body_();
+        sink.close();
+
+        List<ResultRecord> records = new ArrayList<>(candidates);
+        for (SiteArchive.Minor minor : toClean) {
+            for (SiteArchive archive : minor.superseded()) {
+                records.add(new ResultRecord(
+                        getGoal(),
+                        null,
+                        archive.artifact(),
+                        archive.version().toString(),
+                        ResultRecord.Status.WARNING,
+                        Collections.singletonList(
+                                "superseded by " + minor.kept().directory()),
+                        Map.of("url", archive.getUrl(), "kept", minor.kept().getUrl())));
+            }
+        }
+        writeResults(records);
+    }
+
+    private void renderRoot(Sink sink, String root, boolean listed, List<SiteArchive.Minor> toClean) {
+        sink.section2();
+        sink.sectionTitle2();
+        sink.link(root);
+        sink.text(root.substring(root.lastIndexOf('/', root.length() - 2) + 1));
+        sink.link_();
+        sink.sectionTitle2_();
+
+        if (!listed) {
+            sink.paragraph();
+            iconError(sink);
+            sink.text(" cannot list directory");
+            sink.paragraph_();
+        } else if (toClean.isEmpty()) {
+            sink.paragraph();
+            iconSuccess(sink);
+            sink.text(" only one site archive per minor version");
+            sink.paragraph_();
+        } else {
+            sink.table();
+            sink.tableRows(null, false);
+            sink.tableRow();
+            for (String header : Arrays.asList("Minor", "Kept", "Deletion candidates")) {
+                sink.tableHeaderCell();
+                sink.text(header);
+                sink.tableHeaderCell_();
+            }
+            sink.tableRow_();
+            for (SiteArchive.Minor minor : toClean) {
+                sink.tableRow();
+                sink.tableCell();
+                sink.text(minor.name());
+                sink.tableCell_();
+                sink.tableCell();
+                sink.link(minor.kept().getUrl());
+                sink.text(minor.kept().version().toString());
+                sink.link_();
+                sink.tableCell_();
+                sink.tableCell();
+                for (SiteArchive archive : minor.superseded()) {
+                    iconWarning(sink);
+                    sink.text(" ");
+                    sink.link(archive.getUrl());
+                    sink.text(archive.version().toString());
+                    sink.link_();
+                    sink.text(" ");
+                }
+                sink.tableCell_();
+                sink.tableRow_();
+            }
+            sink.tableRows_();
+            sink.table_();
+        }
+        sink.section2_();
+    }
+
+    /**
+     * List directories concurrently, with at most {@link #maxRequestsPerHost} requests per host.
+     *
+     * @return the subdirectories of each directory that could be listed, in the order of the urls
+     */
+    private Map<String, List<String>> listAll(ListingSnapshot snapshot, List<String> urls) {
+        Map<String, CompletableFuture<List<String>>> futures = new LinkedHashMap<>();
+        for (String url : urls) {
+            futures.put(url, CompletableFuture.supplyAsync(() -> list(snapshot, url), getExecutor()));
+        }
+
+        Map<String, List<String>> listings = new LinkedHashMap<>();
+        futures.forEach((url, future) -> {
+            List<String> directories = future.join();
+            if (directories != null) {
+                listings.put(url, directories);
+            }
+        });
+        return listings;
+    }
+
+    private List<String> list(ListingSnapshot snapshot, String url) {
+        Semaphore permits = hostPermits.computeIfAbsent(
+                URI.create(url).getHost(), h -> new Semaphore(Math.max(1, maxRequestsPerHost)));
+        permits.acquireUninterruptibly();
+        try {
+            return snapshot.list(url);
+        } catch (IOException ioe) {
+            String message = "cannot list " + url + ": " + ioe.getMessage();
+            getLog().error(message);
+            addFailure(new FailureSink.Failure(null, null, "listing", url, message));
+            return null;
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.archives;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.dist.tools.HttpRetry;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+/**
+ * Subdirectories of SVN directories, with the ETag of the listing: mod_dav_svn derives the ETag of a directory from
+ * its last changed revision, so a conditional request tells if a directory changed since the previous run without
+ * downloading its listing again.
+ */
+class ListingSnapshot {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Listing of a directory.
+     *
+     * @param etag the ETag of the listing, or null if the server did not provide one
+     * @param directories the subdirectory names, without trailing slash
+     */
+    record Listing(String etag, List<String> directories) {}
+
+    private final File file;
+
+    private final Map<String, Listing> previous;
+
+    private final Map<String, Listing> current = new ConcurrentHashMap<>();
+
+    private final Set<String> unchanged = ConcurrentHashMap.newKeySet();
+
+    private ListingSnapshot(File file, Map<String, Listing> previous) {
+        this.file = file;
+        this.previous = previous;
+    }
+
+    /**
+     * Load the snapshot of the previous run, if it exists.
+     *
+     * @param file the snapshot file
+     * @return the snapshot
+     * @throws IOException if the file exists but cannot be read
+     */
+    static ListingSnapshot load(File file) throws IOException {
+        Map<String, Listing> previous = new HashMap<>();
+        if (file.isFile()) {
+            try {
+                previous = MAPPER.readValue(file, new TypeReference<Map<String, Listing>>() {});
+            } catch (JsonProcessingException e) {
+                // written by an incompatible version: full crawl
+            }
+        }
+        return new ListingSnapshot(file, previous);
+    }
+
+    /**
+     * Save the listings read during this run, dropping directories that were not read any more.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    void save() throws IOException {
+        file.getParentFile().mkdirs();
+        MAPPER.writeValue(file, new HashMap<>(current));
+    }
+
+    /**
+     * List subdirectories of a directory, with a conditional request when it was listed by the previous run.
+     *
+     * @param url the directory url, with trailing slash
+     * @return the subdirectory names, without trailing slash
+     * @throws IOException if the directory cannot be listed
+     */
+    List<String> list(String url) throws IOException {
+        Listing cached = previous.get(url);
+
+        Map<String, String> headers = new HashMap<>();
+        if (cached != null && cached.etag() != null) {
+            headers.put("If-None-Match", cached.etag());
+        }
+
+        HttpResponse<InputStream> response = HttpRetry.get(url, headers);
+        try (InputStream in = response.body()) {
+            Listing listing;
+            if (response.statusCode() == HttpRetry.HTTP_NOT_MODIFIED && cached != null) {
+                listing = cached;
+                unchanged.add(url);
+            } else {
+                listing = new Listing(
+                        response.headers().firstValue("ETag").orElse(null), parse(Jsoup.parse(in, null, url)));
+            }
+            current.put(url, listing);
+            return listing.directories();
+        }
+    }
+
+    /**
+     * Extract subdirectory names of a SVN directory listing.
+     *
+     * @param doc the listing
+     * @return the subdirectory names, without trailing slash
+     */
+    static List<String> parse(Document doc) {
+        List<String> directories = new ArrayList<>();
+        for (Element a : doc.select("li > a[href]")) {
+            String href = a.attr("href");
+            if (href.endsWith("/") && !href.startsWith(".") && !href.startsWith("/") && !href.contains(":")) {
+                directories.add(href.substring(0, href.length() - 1));
+            }
+        }
+        return directories;
+    }
+
+    /**
+     * @return the number of directories listed during this run
+     */
+    int getListed() {
+        return current.size();
+    }
+
+    /**
+     * @return the number of directories that did not change since the previous run
+     */
+    int getUnchanged() {
+        return unchanged.size();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.archives;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+
+/**
+ * A versioned site archive directory, like <code>maven-site-plugin-3.12.1</code> in
+ * <code>plugins-archives/</code>.
+ *
+ * @param root the archives root url
+ * @param directory the directory name
+ * @param artifact the artifact part of the name
+ * @param version the version part of the name
+ */
+record SiteArchive(String root, String directory, String artifact, DefaultArtifactVersion version) {
+    /** The version starts after the first dash followed by a digit. */
+    private static final Pattern NAME = Pattern.compile("(.+?)-(\\d.*)");
+
+    /**
+     * Site archives of a minor version, <code>artifact-x.y</code>: only the highest patch release is kept.
+     *
+     * @param root the archives root url
+     * @param name the artifact-x.y name
+     * @param kept the highest patch release
+     * @param superseded older releases of the same minor version, to delete
+     */
+    record Minor(String root, String name, SiteArchive kept, List<SiteArchive> superseded) {}
+
+    /**
+     * Parse a directory name.
+     *
+     * @param root the archives root url
+     * @param directory the directory name
+     * @return the site archive, or <code>null</code> if the name is not versioned, like <code>*-LATEST</code>
+     */
+    static SiteArchive parse(String root, String directory) {
+        Matcher m = NAME.matcher(directory);
+        if (!m.matches()) {
+            return null;
+        }
+        return new SiteArchive(root, directory, m.group(1), new DefaultArtifactVersion(m.group(2)));
+    }
+
+    /**
+     * Get the url of the archive directory.
+     *
+     * @return the url, with trailing slash
+     */
+    String getUrl() {
+        return root + directory + '/';
+    }
+
+    /**
+     * Group site archives by <code>artifact-x.y</code>, keeping the highest version of each group.
+     *
+     * @param archives the site archives
+     * @return the groups, in order of first appearance
+     */
+    static List<Minor> groupByMinor(List<SiteArchive> archives) {
+        Map<String, List<SiteArchive>> groups = new LinkedHashMap<>();
+        for (SiteArchive archive : archives) {
+            String key = archive.root()
+                    + ' '
+                    + archive.artifact()
+                    + '-'
+                    + archive.version().getMajorVersion()
+                    + '.'
+                    + archive.version().getMinorVersion();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(archive);
+        }
+
+        List<Minor> minors = new ArrayList<>(groups.size());
+        for (Map.Entry<String, List<SiteArchive>> group : groups.entrySet()) {
+            List<SiteArchive> sorted = new ArrayList<>(group.getValue());
+            sorted.sort(Comparator.comparing(SiteArchive::version).reversed());
+            minors.add(new Minor(
+                    sorted.get(0).root(),
+                    group.getKey().substring(group.getKey().indexOf(' ') + 1),
+                    sorted.get(0),
+                    sorted.subList(1, sorted.size())));
+        }
+        return minors;
+    }
+}
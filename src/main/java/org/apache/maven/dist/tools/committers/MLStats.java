@@ -22,11 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +33,7 @@ import java.util.stream.Stream;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import org.apache.maven.dist.tools.HttpRetry;
 import org.apache.maven.dist.tools.committers.MavenCommittersRepository.Committer;
 import org.apache.maven.doxia.sink.Sink;
 import org.slf4j.Logger;
@@ -54,6 +51,8 @@ public abstract class MLStats {
             entry("d", "lte=1d"), // for stats 1 day is enough
             entry("domain", "maven.apache.org"));
 
+    private static final Map<String, String> ACCEPT_JSON = Map.of("Accept", "application/json");
+
     protected abstract boolean describeList(Sink sink);
 
     protected abstract List<Map<String, String>> getQueryParamsList(Committer committer);
@@ -83,29 +82,19 @@ public abstract class MLStats {
     }
 
     private Optional<String> getLastFromML(URI statsURI) {
-        try (HttpClient client = HttpClient.newHttpClient()) {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .GET()
-                    .header("Accept", "application/json")
-                    .uri(statsURI)
-                    .timeout(Duration.ofSeconds(60))
-                    .build();
-            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
-            Optional<String> last = parseLast(response.body());
+        try (InputStream in = HttpRetry.get(statsURI.toString(), ACCEPT_JSON).body()) {
+            Optional<String> last = parseLast(in);
             log.info("Query: {}, returns: {}", statsURI, last);
             return last;
 
         } catch (IOException e) {
             log.warn("Query: {}, error: {}", statsURI, e.getMessage());
             // try next one ...
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException(e);
         }
         return Optional.empty();
     }
 
-    private Optional<String> parseLast(InputStream input) throws IOException {
+    static Optional<String> parseLast(InputStream input) throws IOException {
         JsonFactory factory = new JsonFactory();
         Integer lastYear = null;
         Integer lastMonth = null;
@@ -26,12 +26,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UncheckedIOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -43,6 +38,7 @@ import java.util.TreeMap;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import org.apache.maven.dist.tools.HttpRetry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -90,36 +86,18 @@ public class MavenCommittersRepository {
 
     private void loadData() throws IOException {
 
-        try (HttpClient client = HttpClient.newHttpClient()) {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .GET()
-                    .header("Accept", "application/json")
-                    .uri(URI.create(asfProjectUrl + ASF_GROUP_FILE))
-                    .timeout(Duration.ofSeconds(60))
-                    .build();
-
-            LOG.info("Loading Maven groups");
-            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
-            loadMavenGroup(response.body());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException(e);
+        Map<String, String> acceptJson = Map.of("Accept", "application/json");
+
+        LOG.info("Loading Maven groups");
+        try (InputStream in =
+                HttpRetry.get(asfProjectUrl + ASF_GROUP_FILE, acceptJson).body()) {
+            loadMavenGroup(in);
         }
 
-        try (HttpClient client = HttpClient.newHttpClient()) {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .GET()
-                    .header("Accept", "application/json")
-                    .uri(URI.create(asfProjectUrl + ASF_PEOPLE_FILE))
-                    .timeout(Duration.ofSeconds(60))
-                    .build();
-
-            LOG.info("Loading Committers names");
-            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
-            loadPeopleName(response.body());
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException(e);
+        LOG.info("Loading Committers names");
+        try (InputStream in =
+                HttpRetry.get(asfProjectUrl + ASF_PEOPLE_FILE, acceptJson).body()) {
+            loadPeopleName(in);
         }
 
         loadPeopleNameSupplement();
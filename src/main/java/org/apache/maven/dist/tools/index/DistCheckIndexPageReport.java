@@ -19,27 +19,31 @@
 package org.apache.maven.dist.tools.index;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.Period;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.maven.dist.tools.AbstractCheckResult;
 import org.apache.maven.dist.tools.AbstractDistCheckReport;
 import org.apache.maven.dist.tools.ConfigurationLineInfo;
 import org.apache.maven.dist.tools.JsoupRetry;
+import org.apache.maven.dist.tools.ResultRecord;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.reporting.MavenReportException;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
 /**
  * Check index page for information about components.
@@ -122,9 +126,28 @@ public class DistCheckIndexPageReport extends AbstractDistCheckReport {
         private void setIndexDate(String ownText) {
             this.indexDate = ownText;
         }
+
+        private ResultRecord toRecord(String report) {
+            List<String> errors = new ArrayList<>();
+            if (!getVersion().equals(indexVersion)) {
+                errors.add("found " + indexVersion + " instead of " + getVersion() + " in "
+                        + getConfigurationLine().getIndexPageUrl());
+            }
+            Map<String, String> details = new LinkedHashMap<>();
+            details.put("indexPage", getConfigurationLine().getIndexPageUrl());
+            details.put("indexVersion", indexVersion);
+            if (indexDate != null) {
+                details.put("indexDate", indexDate);
+            }
+            details.put("releaseDate", getConfigurationLine().getReleaseDateFromMetadata());
+            return toRecord(report, errors, Collections.emptyList(), details);
+        }
     }
 
-    private final Map<String, List<CheckIndexPageResult>> results = new HashMap<>();
+    private final Map<String, List<CheckIndexPageResult>> results = new LinkedHashMap<>();
+
+    /** Rows of every index page for this run, by index page url, downloaded concurrently at report start. */
+    private final Map<String, CompletableFuture<IndexPage.Rows>> indexPageRows = new ConcurrentHashMap<>();
 
     private void reportLine(Sink sink, CheckIndexPageResult cipr, boolean displayDate) {
         ConfigurationLineInfo cli = cipr.getConfigurationLine();
@@ -166,6 +189,8 @@ public class DistCheckIndexPageReport extends AbstractDistCheckReport {
                     cli,
                     null,
                     null,
+                    "index-version",
+                    cli.getIndexPageUrl(),
                     cli.getArtifactId() + ": found " + cipr.indexVersion + " instead of " + cipr.getVersion() + " in "
                             + cli.getIndexPageUrl());
         }
@@ -195,8 +220,10 @@ public class DistCheckIndexPageReport extends AbstractDistCheckReport {
             outputDirectory.mkdirs();
         }
 
+        prefetchIndexPages();
         prepareReportData();
 
+        startRender();
         Sink sink = getSink();
         sink.head();
         sink.title();
@@ -257,39 +284,63 @@ public class DistCheckIndexPageReport extends AbstractDistCheckReport {
         sink.body_();
         sink.flush();
         sink.close();
+
+        List<ResultRecord> records = new ArrayList<>();
+        for (List<CheckIndexPageResult> indexPageResults : results.values()) {
+            for (CheckIndexPageResult cipr : indexPageResults) {
+                records.add(cipr.toRecord(getGoal()));
+            }
+        }
+        writeResults(records);
     }
 
-    private void updateIndexPageInfo(ConfigurationLineInfo cli, CheckIndexPageResult r, IndexPage indexPage)
-            throws IOException {
-        Document doc = indexPage.document;
-        if (doc == null) {
-            // document not yet downloaded: download and cache
-            doc = JsoupRetry.get(indexPage.url);
-            indexPage.document = doc;
+    /**
+     * Start downloading and indexing every index page, while configuration lines metadata is resolved.
+     */
+    private void prefetchIndexPages() {
+        for (IndexPage indexPage : INDEX_PAGES) {
+            indexPageRows.put(
+                    indexPage.url,
+                    CompletableFuture.supplyAsync(
+                            () -> {
+                                try {
+                                    return indexPage.parse(JsoupRetry.get(indexPage.url));
+                                } catch (IOException ioe) {
+                                    throw new UncheckedIOException(ioe);
+                                }
+                            },
+                            getExecutor()));
         }
+    }
 
-        // Maven parent POM is now a special case in https://maven.apache.org/pom/
-        boolean isMavenParentPoms = ("maven-parent".equals(cli.getArtifactId()));
+    private IndexPage.Rows getRows(IndexPage indexPage) throws IOException {
+        try {
+            return indexPageRows.get(indexPage.url).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException("unable to read " + indexPage.url, e.getCause());
+        }
+    }
 
-        Elements a = isMavenParentPoms ? doc.select("tr > th > b") : doc.select("tr > td > a[href]:not(.externalLink)");
+    private void updateIndexPageInfo(ConfigurationLineInfo cli, CheckIndexPageResult r, IndexPage indexPage)
+            throws IOException {
+        IndexPage.Rows rows = getRows(indexPage);
 
-        String path = paths.get(cli.getArtifactId());
-        if (isMavenParentPoms) {
-            path = "Maven Parent POMs"; // looking for this <th><b> content
-        } else if (path == null) {
-            path = '/' + cli.getArtifactId() + '/';
+        IndexPage.Row row;
+        if ("maven-parent".equals(cli.getArtifactId())) {
+            // Maven parent POM is now a special case in https://maven.apache.org/pom/
+            row = rows.findHeader("Maven Parent POMs");
+        } else {
+            String path = paths.get(cli.getArtifactId());
+            row = rows.find((path == null) ? '/' + cli.getArtifactId() + '/' : path);
         }
 
-        for (Element e : a) {
-            String href = isMavenParentPoms ? e.text() : e.attr("href");
-
-            if (href.contains(path)) {
-                Element row = e.parent().parent();
-                r.setIndexVersion(row.child(indexPage.versionColumn - 1).ownText());
-                if (indexPage.containsDate) {
-                    r.setIndexDate(row.child(indexPage.versionColumn).ownText());
-                }
-                break;
+        if (row != null) {
+            r.setIndexVersion(row.version());
+            if (indexPage.containsDate) {
+                r.setIndexDate(row.date());
             }
         }
     }
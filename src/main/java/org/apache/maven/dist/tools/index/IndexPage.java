@@ -18,14 +18,19 @@
  */
 package org.apache.maven.dist.tools.index;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 
 class IndexPage {
     final String url;
     final String name;
     final int versionColumn;
     final boolean containsDate;
-    Document document;
 
     IndexPage(String url, String name, int versionColumn, boolean containsDate) {
         this.url = url;
@@ -33,4 +38,96 @@ class IndexPage {
         this.versionColumn = versionColumn;
         this.containsDate = containsDate;
     }
+
+    /**
+     * Version and date of a component, as displayed in a row of the index page.
+     *
+     * @param key the link href, or the header text for a header row
+     * @param version the displayed version
+     * @param date the displayed date, or <code>null</code> if the page does not contain dates
+     */
+    record Row(String key, String version, String date) {}
+
+    /**
+     * Rows of an index page, extracted in one pass over the document so that the document does not need to be kept.
+     */
+    static class Rows {
+        private final List<Row> links = new ArrayList<>();
+
+        private final Map<String, Row> linksBySegment = new HashMap<>();
+
+        private final List<Row> headers = new ArrayList<>();
+
+        /**
+         * Find the first component row whose link contains a path.
+         *
+         * @param path the path, usually <code>/artifactId/</code>
+         * @return the row, or <code>null</code>
+         */
+        Row find(String path) {
+            Row row = linksBySegment.get(path);
+            if (row == null && !isSegment(path)) {
+                // custom path, not a single segment
+                for (Row link : links) {
+                    if (link.key().contains(path)) {
+                        return link;
+                    }
+                }
+            }
+            return row;
+        }
+
+        /**
+         * Find the first header row containing a text.
+         *
+         * @param text the text, like <code>Maven Parent POMs</code>
+         * @return the row, or <code>null</code>
+         */
+        Row findHeader(String text) {
+            for (Row header : headers) {
+                if (header.key().contains(text)) {
+                    return header;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Extract the rows of the downloaded index page document.
+     *
+     * @param doc the index page
+     * @return the rows
+     */
+    Rows parse(Document doc) {
+        Rows rows = new Rows();
+        for (Element a : doc.select("tr > td > a[href]:not(.externalLink)")) {
+            String href = a.attr("href");
+            Row row = toRow(href, a.parent().parent());
+            rows.links.add(row);
+            // index every "/segment/" of the href, the first row in document order wins
+            String[] segments = href.split("/", -1);
+            for (int i = 1; i < segments.length - 1; i++) {
+                rows.linksBySegment.putIfAbsent('/' + segments[i] + '/', row);
+            }
+        }
+        for (Element b : doc.select("tr > th > b")) {
+            rows.headers.add(toRow(b.text(), b.parent().parent()));
+        }
+        return rows;
+    }
+
+    private Row toRow(String key, Element row) {
+        String version = (row.childrenSize() >= versionColumn)
+                ? row.child(versionColumn - 1).ownText()
+                : null;
+        String date = (containsDate && row.childrenSize() > versionColumn)
+                ? row.child(versionColumn).ownText()
+                : null;
+        return new Row(key, version, date);
+    }
+
+    private static boolean isSegment(String path) {
+        return path.length() > 2 && path.charAt(0) == '/' && path.indexOf('/', 1) == path.length() - 1;
+    }
 }
@@ -26,6 +26,8 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.apache.maven.dist.tools.JsoupRetry;
+import org.apache.maven.dist.tools.ResultRecord;
+import org.apache.maven.dist.tools.ResultsWriter;
 import org.apache.maven.reporting.AbstractMavenReport;
 import org.apache.maven.reporting.MavenReportException;
 import org.jsoup.nodes.Document;
@@ -76,4 +78,18 @@ public abstract class AbstractJobsReport extends AbstractMavenReport {
             throw new MavenReportException("Failed to extract repositorynames from Gitbox " + GITBOX_URL, e);
         }
     }
+
+    /**
+     * Write machine readable results next to the HTML report, as <code>.jsonl</code> and <code>.csv</code>.
+     *
+     * @param records the results
+     * @throws MavenReportException if results cannot be written
+     */
+    protected void writeResults(List<ResultRecord> records) throws MavenReportException {
+        try {
+            ResultsWriter.write(outputDirectory, getOutputPath(), records);
+        } catch (IOException e) {
+            throw new MavenReportException("error while writing results of " + getOutputPath(), e);
+        }
+    }
 }
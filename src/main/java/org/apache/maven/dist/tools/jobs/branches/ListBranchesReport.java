@@ -20,7 +20,6 @@ package org.apache.maven.dist.tools.jobs.branches;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -34,6 +33,7 @@ import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.dist.tools.HttpRetry;
 import org.apache.maven.dist.tools.JsoupRetry;
 import org.apache.maven.dist.tools.jobs.AbstractJobsReport;
 import org.apache.maven.dist.tools.jobs.branches.BranchesResponse.Branch;
@@ -42,6 +42,7 @@ import org.apache.maven.doxia.sink.SinkEventAttributes;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.reporting.MavenReportException;
+import org.jsoup.HttpStatusException;
 import org.jsoup.nodes.Document;
 
 /**
@@ -257,6 +258,8 @@ public class ListBranchesReport extends AbstractJobsReport {
         }
 
         generateReport(repoStatus);
+
+        writeResults(repoStatus.stream().map(r -> r.toRecord("list-branches")).collect(Collectors.toList()));
     }
 
     private String getGitHubBranchesUrl(String repository) {
@@ -512,11 +515,12 @@ public class ListBranchesReport extends AbstractJobsReport {
      * @throws java.io.IOException if any.
      */
     protected static boolean hasDependabotYml(String repositoryName) throws IOException {
-        URL url = new URL(GITHUB_URL + repositoryName + "/blob/master/" + DEPENDABOT_CONFIG);
-
-        HttpURLConnection con = (HttpURLConnection) url.openConnection();
-        con.setRequestMethod("HEAD");
-
-        return con.getResponseCode() == HttpURLConnection.HTTP_OK;
+        try {
+            return HttpRetry.head(GITHUB_URL + repositoryName + "/blob/master/" + DEPENDABOT_CONFIG)
+                            .statusCode()
+                    == HttpURLConnection.HTTP_OK;
+        } catch (HttpStatusException e) {
+            return false;
+        }
     }
 }
@@ -19,6 +19,11 @@
 package org.apache.maven.dist.tools.jobs.branches;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.dist.tools.ResultRecord;
 
 /**
  * Represent build result of a Jenkins job for a Git master branch.
@@ -235,4 +240,21 @@ public class Result {
                 + dependabotBranchesJenkins.size()
                 + restJenkins.size();
     }
+
+    /**
+     * Create the machine readable record of this result, with <code>jenkins/git</code> branches counts as details.
+     *
+     * @param report the report goal
+     * @return the record
+     */
+    public ResultRecord toRecord(String report) {
+        Map<String, String> details = new LinkedHashMap<>();
+        details.put("buildUrl", buildUrl);
+        details.put("master", masterBranchesJenkins + "/" + masterBranchesGit);
+        details.put("jira", jiraBranchesJenkins.size() + "/" + jiraBranchesGit.size());
+        details.put("dependabot", dependabotBranchesJenkins.size() + "/" + dependabotBranchesGit.size());
+        details.put("rest", restJenkins.size() + "/" + restGit.size());
+        return new ResultRecord(
+                report, null, repositoryName, null, ResultRecord.Status.OK, Collections.emptyList(), details);
+    }
 }
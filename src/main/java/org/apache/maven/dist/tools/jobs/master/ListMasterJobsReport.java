@@ -113,6 +113,9 @@ public class ListMasterJobsReport extends AbstractJobsReport {
         }
 
         generateReport(repoStatus);
+
+        writeResults(
+                repoStatus.stream().map(r -> r.toRecord("list-master-jobs")).collect(Collectors.toList()));
     }
 
     private void generateReport(List<Result> repoStatus) {
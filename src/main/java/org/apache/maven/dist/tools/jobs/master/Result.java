@@ -19,6 +19,12 @@
 package org.apache.maven.dist.tools.jobs.master;
 
 import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.dist.tools.ResultRecord;
 
 /**
  * Represent build result of a Jenkins job for a Git master branch.
@@ -118,4 +124,34 @@ public class Result {
     public String getIcon() {
         return icon;
     }
+
+    /**
+     * Create the machine readable record of this result.
+     *
+     * @param report the report goal
+     * @return the record
+     */
+    public ResultRecord toRecord(String report) {
+        ResultRecord.Status recordStatus;
+        if ("SUCCESS".equals(status)) {
+            recordStatus = ResultRecord.Status.OK;
+        } else if ("FAILURE".equals(status)) {
+            recordStatus = ResultRecord.Status.ERROR;
+        } else {
+            recordStatus = ResultRecord.Status.WARNING;
+        }
+        Map<String, String> details = new LinkedHashMap<>();
+        details.put("buildUrl", buildUrl);
+        details.put("lastBuild", lastBuild == null ? null : lastBuild.toString());
+        return new ResultRecord(
+                report,
+                null,
+                repositoryName,
+                null,
+                recordStatus,
+                recordStatus == ResultRecord.Status.OK
+                        ? Collections.emptyList()
+                        : List.of("master build status " + status),
+                details);
+    }
 }
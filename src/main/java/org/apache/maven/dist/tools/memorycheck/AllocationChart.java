@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.memorycheck;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Inline SVG line chart of an allocation trend: measures, their rolling median as a dashed line, and regressions as
+ * red dots. Rendered as raw text, the site needs no script nor image generation.
+ */
+final class AllocationChart {
+    private static final int WIDTH = 720;
+    private static final int HEIGHT = 240;
+    private static final int MARGIN = 50;
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneId.of("UTC"));
+
+    private AllocationChart() {}
+
+    /**
+     * Render the chart.
+     *
+     * @param analysis the analyzed measures, oldest first, at least one
+     * @return the <code>svg</code> element
+     */
+    static String toSvg(List<AllocationTrend.Analysis> analysis) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (AllocationTrend.Analysis a : analysis) {
+            min = Math.min(min, a.allocationBytes());
+            max = Math.max(max, a.allocationBytes());
+            if (a.median() >= 0) {
+                min = Math.min(min, a.median());
+                max = Math.max(max, a.median());
+            }
+        }
+        if (max == min) {
+            max = min + 1;
+        }
+
+        StringBuilder measures = new StringBuilder();
+        StringBuilder medians = new StringBuilder();
+        StringBuilder dots = new StringBuilder();
+        for (int i = 0; i < analysis.size(); i++) {
+            AllocationTrend.Analysis a = analysis.get(i);
+            double x = x(i, analysis.size());
+            double y = y(a.allocationBytes(), min, max);
+            measures.append(format("%.1f,%.1f ", x, y));
+            if (a.median() >= 0) {
+                medians.append(format("%.1f,%.1f ", x, y(a.median(), min, max)));
+            }
+            dots.append(format(
+                    "<circle cx=\"%.1f\" cy=\"%.1f\" r=\"%d\" fill=\"%s\"><title>%s: %s%s</title></circle>",
+                    x,
+                    y,
+                    a.regression() ? 5 : 3,
+                    a.regression() ? "red" : "steelblue",
+                    DATE.format(a.point().date()),
+                    toMegaBytes(a.allocationBytes()),
+                    a.median() >= 0 ? format(" (%+.1f%% over median)", a.getChangePercent()) : ""));
+        }
+
+        StringBuilder svg = new StringBuilder();
+        svg.append(format(
+                "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" font-size=\"11\">",
+                WIDTH, HEIGHT));
+        // axes and labels
+        svg.append(format(
+                "<polyline points=\"%d,%d %d,%d %d,%d\" fill=\"none\" stroke=\"gray\"/>",
+                MARGIN, MARGIN / 2, MARGIN, HEIGHT - MARGIN, WIDTH - MARGIN / 2, HEIGHT - MARGIN));
+        svg.append(format("<text x=\"2\" y=\"%d\">%s</text>", MARGIN / 2 + 4, toMegaBytes(max)));
+        svg.append(format("<text x=\"2\" y=\"%d\">%s</text>", HEIGHT - MARGIN + 4, toMegaBytes(min)));
+        svg.append(format(
+                "<text x=\"%d\" y=\"%d\">%s</text>",
+                MARGIN,
+                HEIGHT - MARGIN + 16,
+                DATE.format(analysis.get(0).point().date())));
+        svg.append(format(
+                "<text x=\"%d\" y=\"%d\" text-anchor=\"end\">%s</text>",
+                WIDTH - MARGIN / 2,
+                HEIGHT - MARGIN + 16,
+                DATE.format(analysis.get(analysis.size() - 1).point().date())));
+        // series
+        svg.append("<polyline points=\"")
+                .append(medians)
+                .append("\" fill=\"none\" stroke=\"gray\" stroke-dasharray=\"4\"/>");
+        svg.append("<polyline points=\"").append(measures).append("\" fill=\"none\" stroke=\"steelblue\"/>");
+        svg.append(dots);
+        svg.append("</svg>");
+        return svg.toString();
+    }
+
+    private static double x(int index, int count) {
+        int plotWidth = WIDTH - MARGIN - MARGIN / 2;
+        return MARGIN + (count == 1 ? plotWidth / 2.0 : plotWidth * index / (double) (count - 1));
+    }
+
+    private static double y(long value, long min, long max) {
+        int plotHeight = HEIGHT - MARGIN - MARGIN / 2;
+        return HEIGHT - MARGIN - plotHeight * (value - min) / (double) (max - min);
+    }
+
+    static String toMegaBytes(long bytes) {
+        return format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    private static String format(String format, Object... args) {
+        return String.format(Locale.ROOT, format, args);
+    }
+}
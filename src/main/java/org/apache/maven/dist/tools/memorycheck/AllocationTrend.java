@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.memorycheck;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time series of heap allocation measured by memory check runs, persisted as CSV between report runs, with
+ * regression detection: a measure is a regression when it exceeds the rolling median of the previous measures by
+ * more than a threshold.
+ */
+class AllocationTrend {
+    private static final String CSV_HEADER = "jobId,date,allocationBytes,url";
+
+    /** Exact bytes, like <code>heap allocation (test method thread): 1.57 Giga bytes (1 688 437 416 bytes)</code>. */
+    private static final Pattern EXACT_BYTES =
+            Pattern.compile("heap allocation[^\\n]*?\\(([\\d\\s\\u00a0,.]+) bytes\\)");
+
+    /**
+     * Rounded value, like <code>heap allocation (test method thread) to be less than 3 Giga bytes but is 3.11 Giga
+     * bytes</code>.
+     */
+    private static final Pattern ROUNDED_BYTES = Pattern.compile(
+            "heap allocation[^\\n]*?(?:: | is )([\\d.]+) (Kilo|Mega|Giga)? ?bytes", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Allocation measured by a job.
+     *
+     * @param jobId the workflow job id
+     * @param date the job start
+     * @param allocationBytes the measured heap allocation, in bytes
+     * @param url the job page
+     */
+    record Point(long jobId, Instant date, long allocationBytes, String url) {}
+
+    /**
+     * A measure compared to the rolling median of previous measures.
+     *
+     * @param point the measure
+     * @param median the rolling median of previous measures, -1 if there are not enough previous measures
+     * @param runs the number of previous measures of the median
+     * @param regression true if the measure exceeds the median by more than the threshold
+     */
+    record Analysis(Point point, long median, int runs, boolean regression) {
+        /**
+         * @return the change compared to the median, in percent
+         */
+        double getChangePercent() {
+            return median <= 0 ? 0 : (allocationBytes() - median) * 100.0 / median;
+        }
+
+        long allocationBytes() {
+            return point.allocationBytes();
+        }
+    }
+
+    private final File file;
+
+    private final Map<Long, Point> points = new TreeMap<>();
+
+    private AllocationTrend(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Load the time series, if it exists.
+     *
+     * @param file the CSV file
+     * @return the time series
+     * @throws IOException if the file exists but cannot be read
+     */
+    static AllocationTrend load(File file) throws IOException {
+        AllocationTrend trend = new AllocationTrend(file);
+        if (file.isFile()) {
+            try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                String line = in.readLine(); // header
+                while ((line = in.readLine()) != null) {
+                    String[] values = line.split(",", 4);
+                    if (values.length == 4) {
+                        trend.add(new Point(
+                                Long.parseLong(values[0]),
+                                Instant.parse(values[1]),
+                                Long.parseLong(values[2]),
+                                values[3]));
+                    }
+                }
+            }
+        }
+        return trend;
+    }
+
+    /**
+     * Save the time series.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    void save() throws IOException {
+        file.getParentFile().mkdirs();
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            out.write(CSV_HEADER);
+            out.write('\n');
+            for (Point point : getPoints()) {
+                out.write(point.jobId() + "," + point.date() + ',' + point.allocationBytes() + ',' + point.url());
+                out.write('\n');
+            }
+        }
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    boolean contains(long jobId) {
+        return points.containsKey(jobId);
+    }
+
+    void add(Point point) {
+        points.put(point.jobId(), point);
+    }
+
+    /**
+     * @return the measures, oldest first
+     */
+    List<Point> getPoints() {
+        List<Point> sorted = new ArrayList<>(points.values());
+        sorted.sort(Comparator.comparing(Point::date));
+        return sorted;
+    }
+
+    /**
+     * Compare every measure to the rolling median of the previous ones.
+     *
+     * @param window the number of previous measures of the rolling median
+     * @param minRuns the number of previous measures required to flag a regression, so that a single noisy
+     *        measure is not a baseline
+     * @param thresholdPercent the increase over the median, in percent, above which a measure is a regression
+     * @return the analysis of every measure, oldest first
+     */
+    List<Analysis> analyze(int window, int minRuns, double thresholdPercent) {
+        List<Point> sorted = getPoints();
+        List<Analysis> analysis = new ArrayList<>(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            Point point = sorted.get(i);
+            if (i < Math.max(1, window / 2)) {
+                // not enough history for a meaningful median
+                analysis.add(new Analysis(point, -1, i, false));
+                continue;
+            }
+            List<Point> previous = sorted.subList(Math.max(0, i - window), i);
+            long median = median(previous);
+            analysis.add(new Analysis(
+                    point,
+                    median,
+                    previous.size(),
+                    previous.size() >= minRuns && point.allocationBytes() > median * (1 + thresholdPercent / 100)));
+        }
+        return analysis;
+    }
+
+    private static long median(List<Point> points) {
+        long[] values =
+                points.stream().mapToLong(Point::allocationBytes).sorted().toArray();
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    /**
+     * Extract the heap allocation measured by QuickPerf from a job log.
+     *
+     * @param log the job log
+     * @return the allocation in bytes, or -1 if not found
+     */
+    static long parseAllocation(String log) {
+        Matcher exact = EXACT_BYTES.matcher(log);
+        if (exact.find()) {
+            return Long.parseLong(exact.group(1).replaceAll("[^\\d]", ""));
+        }
+        Matcher rounded = ROUNDED_BYTES.matcher(log);
+        if (rounded.find()) {
+            double value = Double.parseDouble(rounded.group(1));
+            String unit = rounded.group(2) == null ? "" : rounded.group(2).toLowerCase();
+            int power = Arrays.asList("", "kilo", "mega", "giga").indexOf(unit);
+            return (long) (value * Math.pow(1024, power));
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.memorycheck;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.maven.dist.tools.HttpRetry;
+
+/**
+ * GitHub REST API client with a response cache by ETag: a cached response is revalidated with a conditional request,
+ * and a <code>304 Not Modified</code> response does not count against GitHub rate limit. Requests are anonymous
+ * unless a token is provided.
+ */
+class GitHubApi {
+    static final String API_URL = "https://api.github.com/";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Cached response.
+     *
+     * @param etag the response ETag
+     * @param body the response body
+     */
+    record Response(String etag, JsonNode body) {}
+
+    private final File cacheFile;
+
+    private final String token;
+
+    private final Map<String, Response> previous = new HashMap<>();
+
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    /**
+     * Create a client, loading responses cached by a previous run.
+     *
+     * @param cacheFile the cache file
+     * @param token a GitHub token, or <code>null</code> for anonymous requests
+     * @throws IOException if the cache file exists but cannot be read
+     */
+    GitHubApi(File cacheFile, String token) throws IOException {
+        this.cacheFile = cacheFile;
+        this.token = token;
+        if (cacheFile.isFile()) {
+            try {
+                previous.putAll(MAPPER.readValue(cacheFile, new TypeReference<Map<String, Response>>() {}));
+            } catch (JsonProcessingException e) {
+                // written by an incompatible version: ignored
+            }
+        }
+    }
+
+    /**
+     * GET an API path.
+     *
+     * @param path the path, relative to {@link #API_URL}
+     * @return the response body
+     * @throws IOException if the API cannot be read
+     */
+    JsonNode get(String path) throws IOException {
+        String url = API_URL + path;
+        Response cached = previous.get(url);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept", "application/vnd.github+json");
+        if (token != null && !token.isEmpty()) {
+            headers.put("Authorization", "Bearer " + token);
+        }
+        if (cached != null) {
+            headers.put("If-None-Match", cached.etag());
+        }
+
+        requests.incrementAndGet();
+        HttpResponse<InputStream> response = HttpRetry.get(url, headers);
+        try (InputStream in = response.body()) {
+            if (response.statusCode() == HttpRetry.HTTP_NOT_MODIFIED && cached != null) {
+                notModified.incrementAndGet();
+                responses.put(url, cached);
+                return cached.body();
+            }
+
+            JsonNode body = MAPPER.readTree(in);
+            response.headers().firstValue("ETag").ifPresent(etag -> responses.put(url, new Response(etag, body)));
+            return body;
+        }
+    }
+
+    /**
+     * GET a plain text API path, like a job log: the response is not cached, since the caller keeps what it extracts.
+     *
+     * @param path the path, relative to {@link #API_URL}
+     * @return the response body
+     * @throws IOException if the API cannot be read
+     */
+    String getText(String path) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        if (token != null && !token.isEmpty()) {
+            headers.put("Authorization", "Bearer " + token);
+        }
+
+        requests.incrementAndGet();
+        HttpResponse<InputStream> response = HttpRetry.get(API_URL + path, headers);
+        try (InputStream in = response.body()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Save responses of this run, older ones being dropped.
+     *
+     * @throws IOException if the cache file cannot be written
+     */
+    void save() throws IOException {
+        cacheFile.getParentFile().mkdirs();
+        MAPPER.writeValue(cacheFile, responses);
+    }
+
+    /**
+     * @return the number of requests sent
+     */
+    int getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of requests answered from the cache
+     */
+    int getNotModified() {
+        return notModified.get();
+    }
+}
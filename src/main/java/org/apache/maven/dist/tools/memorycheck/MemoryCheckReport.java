@@ -18,27 +18,27 @@
  */
 package org.apache.maven.dist.tools.memorycheck;
 
+import java.io.File;
 import java.io.IOException;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import org.apache.maven.dist.tools.AbstractDistCheckReport;
 import org.apache.maven.dist.tools.ConfigurationLineInfo;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.SinkEventAttributes;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.reporting.MavenReportException;
-import org.kohsuke.github.GHWorkflowJob;
-import org.kohsuke.github.GHWorkflowRun;
-import org.kohsuke.github.GitHub;
 
 /**
  * Generate from now a single page with an history of build status from
@@ -59,6 +59,42 @@ public class MemoryCheckReport extends AbstractDistCheckReport {
     private static final int BUILD_HISTORY_SIZE = 10;
     private static final int GITHUB_ACTION_JOB_PAGE_SIZE = 10;
 
+    /**
+     * GitHub token used to query GitHub API, to get a higher rate limit than anonymous requests. Defaults to
+     * <code>GITHUB_TOKEN</code> environment variable.
+     */
+    @Parameter(property = "githubToken")
+    private String githubToken;
+
+    /**
+     * Number of previous measures of the rolling median an allocation is compared to.
+     */
+    @Parameter(property = "allocationTrendWindow", defaultValue = "7")
+    private int allocationTrendWindow;
+
+    /**
+     * Increase over the rolling median of previous allocations, in percent, above which an allocation is reported as
+     * a regression.
+     */
+    @Parameter(property = "allocationRegressionThreshold", defaultValue = "5")
+    private double allocationRegressionThreshold;
+
+    /**
+     * Number of previous allocations required before an allocation can be reported as a regression.
+     */
+    @Parameter(property = "allocationRegressionMinRuns", defaultValue = "3")
+    private int allocationRegressionMinRuns;
+
+    /**
+     * Job of a workflow run.
+     *
+     * @param id the job id
+     * @param htmlUrl the job page
+     * @param startedAt the job start, or null if not started
+     * @param conclusion the job conclusion, like success or failure, or null while running
+     */
+    record Job(long id, String htmlUrl, Instant startedAt, String conclusion) {}
+
     /**
      * Memory Check Report constructor.
      */
@@ -75,10 +111,30 @@ public class MemoryCheckReport extends AbstractDistCheckReport {
 
         sink.body();
         generateMavenTestBenchIntroduction(sink);
+
+        File cacheFile = new File(cacheDirectory, "github-api-cache.json");
+        GitHubApi api;
+        try {
+            api = new GitHubApi(cacheFile, githubToken != null ? githubToken : System.getenv("GITHUB_TOKEN"));
+        } catch (IOException e) {
+            throw new MavenReportException("cannot read " + cacheFile, e);
+        }
+        List<Job> status = getLatestBuildStatus(api);
+
         sink.paragraph();
-        generateMavenTestBenchBuildStatusResult(sink);
+        generateMavenTestBenchBuildStatusResult(sink, status);
         sink.paragraph_();
+
+        generateAllocationTrend(sink, api, status);
         sink.body_();
+
+        getLog().info("GitHub API: " + api.getNotModified() + '/' + api.getRequests()
+                + " responses not modified since previous run");
+        try {
+            api.save();
+        } catch (IOException e) {
+            getLog().warn("cannot write " + cacheFile + ": " + e.getMessage());
+        }
     }
 
     private void generateTitle(Sink sink) {
@@ -110,18 +166,19 @@ public class MemoryCheckReport extends AbstractDistCheckReport {
         sink.link_();
     }
 
-    private void generateMavenTestBenchBuildStatusResult(Sink sink) {
+    private void generateMavenTestBenchBuildStatusResult(Sink sink, List<Job> status) {
         sink.lineBreak();
         sink.text("Current build status: ");
-        List<GHWorkflowJob> status = getLatestBuildStatus();
         sink.list();
         status.forEach(s -> {
             sink.listItem();
-            sink.link(s.getHtmlUrl().toString());
-            sink.text(DateTimeFormatter.ISO_LOCAL_DATE
-                    .withZone(ZoneId.of("UTC"))
-                    .format(s.getStartedAt().toInstant()));
-            if (s.getConclusion() == GHWorkflowRun.Conclusion.SUCCESS) {
+            sink.link(s.htmlUrl());
+            if (s.startedAt() != null) {
+                sink.text(DateTimeFormatter.ISO_LOCAL_DATE
+                        .withZone(ZoneId.of("UTC"))
+                        .format(s.startedAt()));
+            }
+            if ("success".equals(s.conclusion())) {
                 iconSuccess(sink);
             } else {
                 iconError(sink);
@@ -132,6 +189,120 @@ public class MemoryCheckReport extends AbstractDistCheckReport {
         sink.list_();
     }
 
+    /**
+     * Extract the allocation measured by new finished jobs from their log, add it to the time series kept in the
+     * cache directory, then render the trend and flag allocations above the rolling median of previous ones.
+     */
+    private void generateAllocationTrend(Sink sink, GitHubApi api, List<Job> status) throws MavenReportException {
+        File trendFile = new File(cacheDirectory, "memory-check-allocations.csv");
+        AllocationTrend trend;
+        try {
+            trend = AllocationTrend.load(trendFile);
+        } catch (IOException | RuntimeException e) {
+            throw new MavenReportException("cannot read " + trendFile, e);
+        }
+
+        List<CompletableFuture<AllocationTrend.Point>> points = new ArrayList<>();
+        for (Job job : status) {
+            if (job.conclusion() != null && job.startedAt() != null && !trend.contains(job.id())) {
+                points.add(CompletableFuture.supplyAsync(() -> extractAllocation(api, job), getExecutor()));
+            }
+        }
+        int missing = 0;
+        for (CompletableFuture<AllocationTrend.Point> point : points) {
+            if (point.join() != null) {
+                trend.add(point.join());
+            } else {
+                missing++;
+            }
+        }
+        if (missing > 0) {
+            getLog().warn("no allocation found in " + missing + " of " + points.size() + " new job logs"
+                    + " (downloading logs requires a GitHub token)");
+        }
+        try {
+            trend.save();
+        } catch (IOException e) {
+            getLog().warn("cannot write " + trendFile + ": " + e.getMessage());
+        }
+
+        sink.section2();
+        sink.sectionTitle2();
+        sink.text("Allocation Trend");
+        sink.sectionTitle2_();
+
+        List<AllocationTrend.Analysis> analysis =
+                trend.analyze(allocationTrendWindow, allocationRegressionMinRuns, allocationRegressionThreshold);
+        if (analysis.isEmpty()) {
+            sink.paragraph();
+            sink.text("No allocation measured yet.");
+            sink.paragraph_();
+            sink.section2_();
+            return;
+        }
+
+        sink.paragraph();
+        sink.rawText(AllocationChart.toSvg(analysis));
+        sink.paragraph_();
+
+        AllocationTrend.Analysis latest = analysis.get(analysis.size() - 1);
+        sink.paragraph();
+        sink.text("Latest allocation: " + AllocationChart.toMegaBytes(latest.allocationBytes()));
+        if (latest.median() >= 0) {
+            sink.text(String.format(
+                    Locale.ROOT,
+                    ", %+.1f%% compared to the median of the %d previous runs ",
+                    latest.getChangePercent(),
+                    latest.runs()));
+            if (latest.regression()) {
+                iconError(sink);
+                getLog().warn("memory check allocation regression: "
+                        + AllocationChart.toMegaBytes(latest.allocationBytes()) + " is "
+                        + String.format(Locale.ROOT, "%+.1f%%", latest.getChangePercent())
+                        + " over median of " + latest.runs() + " previous runs, see "
+                        + latest.point().url());
+            } else {
+                iconSuccess(sink);
+            }
+        }
+        sink.paragraph_();
+
+        List<AllocationTrend.Analysis> regressions =
+                analysis.stream().filter(AllocationTrend.Analysis::regression).collect(Collectors.toList());
+        if (!regressions.isEmpty()) {
+            sink.paragraph();
+            sink.text("Allocations more than " + allocationRegressionThreshold + "% over the median of previous runs:");
+            sink.paragraph_();
+            sink.list();
+            for (AllocationTrend.Analysis regression : regressions) {
+                sink.listItem();
+                sink.link(regression.point().url());
+                sink.text(DateTimeFormatter.ISO_LOCAL_DATE
+                        .withZone(ZoneId.of("UTC"))
+                        .format(regression.point().date()));
+                sink.link_();
+                sink.text(": " + AllocationChart.toMegaBytes(regression.allocationBytes())
+                        + String.format(Locale.ROOT, " (%+.1f%%)", regression.getChangePercent()));
+                sink.listItem_();
+            }
+            sink.list_();
+        }
+        sink.section2_();
+    }
+
+    private AllocationTrend.Point extractAllocation(GitHubApi api, Job job) {
+        try {
+            String log = api.getText("repos/" + GITHUB_REPOSITORY + "/actions/jobs/" + job.id() + "/logs");
+            long allocation = AllocationTrend.parseAllocation(log);
+            return allocation < 0
+                    ? null
+                    : new AllocationTrend.Point(job.id(), job.startedAt(), allocation, job.htmlUrl());
+        } catch (IOException e) {
+            getLog().debug("cannot download log of " + job.htmlUrl() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     protected boolean isIndexPageCheck() {
@@ -166,30 +337,58 @@ public class MemoryCheckReport extends AbstractDistCheckReport {
         return "Display daily memory result from a QuickPerf sub project on github";
     }
 
-    private List<GHWorkflowJob> getLatestBuildStatus() {
+    /**
+     * Get jobs of the latest runs of the memory check workflow: runs are queried for this workflow only, then jobs of
+     * every run are listed concurrently.
+     */
+    private List<Job> getLatestBuildStatus(GitHubApi api) {
         try {
-            return StreamSupport.stream(
-                            GitHub.connect()
-                                    .getRepository(GITHUB_REPOSITORY)
-                                    .queryWorkflowRuns()
-                                    .list()
-                                    .withPageSize(GITHUB_ACTION_JOB_PAGE_SIZE)
-                                    .spliterator(),
-                            false)
-                    .limit(BUILD_HISTORY_SIZE)
-                    .filter(ghWorkflowRun -> ghWorkflowRun.getName().equals(MEMORY_CHECK_GITHUB_ACTION_WORKFLOW_NAME))
-                    .flatMap(ghWorkflowRun -> {
-                        try {
-                            return Arrays.stream(ghWorkflowRun.listJobs().toArray());
-                        } catch (IOException e) {
-                            getLog().warn(e);
-                            return Stream.empty();
-                        }
-                    })
-                    .collect(Collectors.toList());
+            JsonNode workflows = api.get("repos/" + GITHUB_REPOSITORY + "/actions/workflows?per_page=100");
+            String workflowId = null;
+            for (JsonNode workflow : workflows.path("workflows")) {
+                if (MEMORY_CHECK_GITHUB_ACTION_WORKFLOW_NAME.equals(
+                        workflow.path("name").asText())) {
+                    workflowId = workflow.path("id").asText();
+                }
+            }
+            if (workflowId == null) {
+                getLog().warn("workflow '" + MEMORY_CHECK_GITHUB_ACTION_WORKFLOW_NAME + "' not found in "
+                        + GITHUB_REPOSITORY_URL);
+                return new ArrayList<>();
+            }
+
+            JsonNode runs = api.get("repos/" + GITHUB_REPOSITORY + "/actions/workflows/" + workflowId
+                    + "/runs?per_page=" + BUILD_HISTORY_SIZE);
+            List<CompletableFuture<List<Job>>> jobs = new ArrayList<>();
+            for (JsonNode run : runs.path("workflow_runs")) {
+                String runId = run.path("id").asText();
+                jobs.add(CompletableFuture.supplyAsync(() -> listJobs(api, runId), getExecutor()));
+            }
+            return jobs.stream().flatMap(f -> f.join().stream()).collect(Collectors.toList());
         } catch (IOException e) {
             getLog().warn(e);
             return new ArrayList<>();
         }
     }
+
+    private List<Job> listJobs(GitHubApi api, String runId) {
+        try {
+            JsonNode jobs = api.get("repos/" + GITHUB_REPOSITORY + "/actions/runs/" + runId + "/jobs?per_page="
+                    + GITHUB_ACTION_JOB_PAGE_SIZE);
+            List<Job> result = new ArrayList<>();
+            for (JsonNode job : jobs.path("jobs")) {
+                result.add(new Job(
+                        job.path("id").asLong(),
+                        job.path("html_url").asText(),
+                        job.hasNonNull("started_at")
+                                ? Instant.parse(job.path("started_at").asText())
+                                : null,
+                        job.path("conclusion").asText(null)));
+            }
+            return result;
+        } catch (IOException e) {
+            getLog().warn(e);
+            return Collections.emptyList();
+        }
+    }
 }
@@ -18,21 +18,25 @@
  */
 package org.apache.maven.dist.tools.pgp;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.io.Reader;
-import java.io.StringWriter;
-import java.net.URL;
-import java.util.Iterator;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
 import org.apache.maven.dist.tools.AbstractDistCheckReport;
 import org.apache.maven.dist.tools.ConfigurationLineInfo;
+import org.apache.maven.dist.tools.FailureSink;
+import org.apache.maven.dist.tools.HttpRetry;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.reporting.MavenReportException;
@@ -40,7 +44,7 @@ import org.apache.maven.reporting.MavenReportException;
 import static org.apache.maven.doxia.sink.impl.SinkEventAttributeSet.Semantics.BOLD;
 
 /**
- * Check PGP public KEYS files.
+ * Check PGP public KEYS files: the 3 files are fetched concurrently, then compared as sets of keys by fingerprint.
  */
 @Mojo(name = "check-pgp-keys", requiresProject = false)
 public class CheckPgpKeysReport extends AbstractDistCheckReport {
@@ -95,17 +99,27 @@ public class CheckPgpKeysReport extends AbstractDistCheckReport {
     /** {@inheritDoc} */
     @Override
     protected void executeReport(Locale locale) throws MavenReportException {
-        String editKeys1 = fetchUrl(EDIT_KEYS_1_URL);
-        String publishKeys2 = fetchUrl(PUBLISH_KEYS_2_URL);
-        String downloadKeys3 = fetchUrl(DOWNLOAD_KEYS_3_URL);
-
-        if (!editKeys1.equals(publishKeys2)) {
-            File failure = new File(failuresDirectory, FAILURES_FILENAME);
-            try (PrintWriter output = new PrintWriter(new FileWriter(failure))) {
-                output.println("PGP KEYS files content is different: " + PUBLISH_KEYS_2_URL + " vs " + EDIT_KEYS_1_URL);
-            } catch (Exception e) {
-                getLog().error("Cannot append to " + getFailuresFilename());
-            }
+        startFailures();
+
+        CompletableFuture<KeysIndex> edit = fetchKeysAsync(EDIT_KEYS_1_URL);
+        CompletableFuture<KeysIndex> publish = fetchKeysAsync(PUBLISH_KEYS_2_URL);
+        CompletableFuture<KeysIndex> download = fetchKeysAsync(DOWNLOAD_KEYS_3_URL);
+        KeysIndex editKeys1 = join(edit, EDIT_KEYS_1_URL);
+        KeysIndex publishKeys2 = join(publish, PUBLISH_KEYS_2_URL);
+        KeysIndex downloadKeys3 = join(download, DOWNLOAD_KEYS_3_URL);
+
+        // a file with unparseable blocks is not compared: missing keys would be reported as removed
+        boolean editValid = checkParseErrors(EDIT_KEYS_1_URL, editKeys1);
+        boolean publishValid = checkParseErrors(PUBLISH_KEYS_2_URL, publishKeys2);
+        boolean downloadValid = checkParseErrors(DOWNLOAD_KEYS_3_URL, downloadKeys3);
+        KeysDiff publishDiff = editValid && publishValid ? KeysDiff.compare(editKeys1, publishKeys2) : null;
+        KeysDiff downloadDiff = publishValid && downloadValid ? KeysDiff.compare(publishKeys2, downloadKeys3) : null;
+
+        if (publishDiff != null && !publishDiff.isEmpty()) {
+            String message = "PGP KEYS files content is different: " + PUBLISH_KEYS_2_URL + " vs " + EDIT_KEYS_1_URL
+                    + ": " + publishDiff;
+            getLog().error(message);
+            addFailure(new FailureSink.Failure(null, null, "keys-different", PUBLISH_KEYS_2_URL, message));
         }
 
         Sink sink = getSink();
@@ -129,6 +143,7 @@ public class CheckPgpKeysReport extends AbstractDistCheckReport {
         sink.link(EDIT_KEYS_1_URL);
         sink.rawText(EDIT_KEYS_1_URL);
         sink.link_();
+        keysCount(sink, editKeys1);
         sink.numberedListItem_();
 
         // 2. PMC publish
@@ -137,6 +152,7 @@ public class CheckPgpKeysReport extends AbstractDistCheckReport {
         sink.link(PUBLISH_KEYS_2_URL);
         sink.rawText(PUBLISH_KEYS_2_URL);
         sink.link_();
+        keysCount(sink, publishKeys2);
         sink.numberedListItem_();
 
         // 3. INFRA distribute
@@ -145,6 +161,7 @@ public class CheckPgpKeysReport extends AbstractDistCheckReport {
         sink.link(DOWNLOAD_KEYS_3_URL);
         sink.rawText(DOWNLOAD_KEYS_3_URL);
         sink.link_();
+        keysCount(sink, downloadKeys3);
         sink.numberedListItem_();
 
         sink.numberedList_();
@@ -160,100 +177,177 @@ public class CheckPgpKeysReport extends AbstractDistCheckReport {
         sink.paragraph_();
 
         sink.paragraph();
+        sink.rawText("Keys are compared by fingerprint: a changed key has the same fingerprint but different"
+                + " user ids, sub-keys or signatures.");
         sink.paragraph_();
 
         sink.list();
         sink.listItem();
         sink.rawText("KEYS 2 == KEYS 1: ");
-        if (publishKeys2.equals(editKeys1)) {
-            iconSuccess(sink);
-        } else {
-            iconError(sink);
-        }
+        diffSummary(sink, publishDiff);
         sink.listItem_();
 
         sink.listItem();
         sink.rawText("KEYS 3 == KEYS 2: ");
-        if (downloadKeys3.equals(publishKeys2)) {
+        diffSummary(sink, downloadDiff);
+        sink.listItem_();
+        sink.list_();
+        sink.section1_();
+
+        renderDiff(sink, "publish (PMC) vs edit (committer)", publishDiff);
+        renderDiff(sink, "download (INFRA) vs publish (PMC)", downloadDiff);
+
+        sink.body_();
+        sink.close();
+    }
+
+    /**
+     * Report parse errors of a <code>KEYS</code> file.
+     *
+     * @return <code>true</code> if the file was completely parsed
+     */
+    private boolean checkParseErrors(String url, KeysIndex keys) {
+        for (String error : keys.getParseErrors()) {
+            String message = "PGP KEYS file " + url + " cannot be parsed, " + error;
+            getLog().error(message);
+            addFailure(new FailureSink.Failure(null, null, "keys-invalid", url, message));
+        }
+        return keys.getParseErrors().isEmpty();
+    }
+
+    private static void keysCount(Sink sink, KeysIndex keys) {
+        sink.text(" (" + keys.getKeyRings().size() + " keys");
+        if (keys.getInvalidBlocks() > 0) {
+            sink.text(", ");
+            iconError(sink);
+            sink.text(" " + keys.getInvalidBlocks() + " invalid blocks: " + String.join(", ", keys.getParseErrors()));
+        }
+        sink.text(")");
+    }
+
+    private static void diffSummary(Sink sink, KeysDiff diff) {
+        if (diff == null) {
+            iconError(sink);
+            sink.text(" not compared, invalid KEYS file");
+        } else if (diff.isEmpty()) {
             iconSuccess(sink);
         } else {
             iconError(sink);
+            sink.text(" " + diff);
         }
-        sink.listItem_();
-        sink.list_();
+    }
 
-        sink.numberedList(Sink.NUMBERING_DECIMAL);
-        KeysIterator edit1Iterator = new KeysIterator(editKeys1);
-        KeysIterator publish2Iterator = new KeysIterator(publishKeys2);
-        while (edit1Iterator.hasNext() || publish2Iterator.hasNext()) {
-            String editKey1 = edit1Iterator.hasNext() ? edit1Iterator.next() : "";
-            String publishKey2 = publish2Iterator.hasNext() ? publish2Iterator.next() : "";
+    private static void renderDiff(Sink sink, String title, KeysDiff diff) {
+        if (diff == null || diff.isEmpty()) {
+            return;
+        }
+        sink.section2();
+        sink.sectionTitle2();
+        sink.text(title);
+        sink.sectionTitle2_();
+        sink.table();
+        sink.tableRows(null, false);
+        sink.tableRow();
+        for (String header : new String[] {"Difference", "Fingerprint", "User Id"}) {
+            sink.tableHeaderCell();
+            sink.text(header);
+            sink.tableHeaderCell_();
+        }
+        sink.tableRow_();
+        diffRows(sink, "added", diff.added());
+        diffRows(sink, "removed", diff.removed());
+        diffRows(sink, "changed", diff.changed());
+        sink.tableRows_();
+        sink.table_();
+        sink.section2_();
+    }
 
-            sink.numberedListItem();
+    private static void diffRows(Sink sink, String difference, List<KeysIndex.KeyRing> rings) {
+        for (KeysIndex.KeyRing ring : rings) {
+            sink.tableRow();
+            sink.tableCell();
+            sink.text(difference);
+            sink.tableCell_();
+            sink.tableCell();
             sink.verbatim(BOLD);
-            sink.rawText(editKey1);
+            sink.text(ring.fingerprint());
             sink.verbatim_();
-            if (!publishKey2.equals(editKey1)) {
-                sink.rawText("edit (committer) ");
-                iconError(sink);
-                sink.rawText(" publish (PMC)");
-
-                sink.verbatim(BOLD);
-                sink.rawText(publishKey2);
-                sink.verbatim_();
-            }
-            sink.numberedListItem_();
+            sink.tableCell_();
+            sink.tableCell();
+            sink.text(ring.userId() == null ? "" : ring.userId());
+            sink.tableCell_();
+            sink.tableRow_();
         }
-        sink.numberedList_();
-
-        sink.section1_();
-        sink.body_();
-        sink.close();
     }
 
     /** {@inheritDoc} */
     @Override
     protected void checkArtifact(ConfigurationLineInfo request, String repoBase) {}
 
-    private String fetchUrl(String url) throws MavenReportException {
-        try (InputStream in = new URL(url).openStream();
-                Reader reader = new InputStreamReader(in, "UTF-8");
-                StringWriter writer = new StringWriter()) {
-            IOUtils.copy(reader, writer);
-            return writer.toString();
-        } catch (IOException ioe) {
-            throw new MavenReportException("cannot fetch " + url, ioe);
-        }
+    private CompletableFuture<KeysIndex> fetchKeysAsync(String url) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return fetchKeys(url);
+                    } catch (IOException ioe) {
+                        throw new CompletionException(ioe);
+                    }
+                },
+                getExecutor());
     }
 
-    private static class KeysIterator implements Iterator<String> {
-        private static final String BEGIN = "-----BEGIN PGP PUBLIC KEY BLOCK-----";
-        private static final String END = "-----END PGP PUBLIC KEY BLOCK-----";
-
-        private String content;
+    private static KeysIndex join(CompletableFuture<KeysIndex> keys, String url) throws MavenReportException {
+        try {
+            return keys.join();
+        } catch (CompletionException ce) {
+            if (ce.getCause() instanceof IOException) {
+                throw new MavenReportException("cannot fetch " + url, (IOException) ce.getCause());
+            }
+            throw ce;
+        }
+    }
 
-        KeysIterator(String content) {
-            this.content = content.substring(content.indexOf("---") + 3);
+    /**
+     * Fetch and parse a <code>KEYS</code> file, cached with its ETag in <code>cacheDirectory</code>: an unchanged
+     * file is parsed from the cache after a conditional request, a changed one is parsed while being cached.
+     */
+    private KeysIndex fetchKeys(String url) throws IOException {
+        if (HttpRetry.isFile(url)) {
+            try (InputStream in = HttpRetry.openStream(url)) {
+                return KeysIndex.load(in);
+            }
         }
 
-        @Override
-        public boolean hasNext() {
-            return content.length() > 0;
+        Path cached = cacheDirectory.toPath().resolve("pgp-keys").resolve(url.replaceAll("[^A-Za-z0-9.-]", "_"));
+        Path etag = cached.resolveSibling(cached.getFileName() + ".etag");
+        Map<String, String> headers = new HashMap<>();
+        if (Files.isRegularFile(cached) && Files.isRegularFile(etag)) {
+            headers.put("If-None-Match", Files.readString(etag).trim());
         }
 
-        @Override
-        public String next() {
-            // get only gpg --list-sigs <ID>, not armoured content
-            String id = content.substring(0, content.indexOf(BEGIN)).trim();
-            // and even strip variable complex content: pub and uid are the 2 (or 3, it depends) interesting lines here
-            int uid = id.indexOf("uid    ");
-            if (uid > 0) {
-                int eol = id.indexOf('\n', uid);
-                id = id.substring(0, eol);
+        HttpResponse<InputStream> response = HttpRetry.get(url, headers);
+        try (InputStream in = response.body()) {
+            if (response.statusCode() != HttpRetry.HTTP_NOT_MODIFIED) {
+                Files.createDirectories(cached.getParent());
+                Path tmp = cached.resolveSibling(cached.getFileName() + ".tmp");
+                KeysIndex keys;
+                try (InputStream tee = new TeeInputStream(in, Files.newOutputStream(tmp), true)) {
+                    keys = KeysIndex.load(tee);
+                }
+                Files.move(tmp, cached, StandardCopyOption.REPLACE_EXISTING);
+                Optional<String> newEtag = response.headers().firstValue("ETag");
+                if (newEtag.isPresent()) {
+                    Files.writeString(etag, newEtag.get());
+                } else {
+                    Files.deleteIfExists(etag);
+                }
+                return keys;
             }
+        }
 
-            content = content.substring(content.indexOf(END) + END.length()).trim();
-            return id;
+        getLog().info(url + " not modified since previous run");
+        try (InputStream in = Files.newInputStream(cached)) {
+            return KeysIndex.load(in);
         }
     }
 }
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.pgp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Differences between two <code>KEYS</code> files, as sets of key rings by fingerprint: an inserted key is reported
+ * once, whatever its position in the file.
+ *
+ * @param added key rings missing from the reference
+ * @param removed key rings of the reference that are missing
+ * @param changed key rings of the reference with different content, like new user ids, sub-keys or signatures
+ */
+record KeysDiff(List<KeysIndex.KeyRing> added, List<KeysIndex.KeyRing> removed, List<KeysIndex.KeyRing> changed) {
+
+    /**
+     * Compare a <code>KEYS</code> file to a reference.
+     *
+     * @param reference the reference keys
+     * @param other the compared keys
+     * @return the differences
+     */
+    static KeysDiff compare(KeysIndex reference, KeysIndex other) {
+        Map<String, KeysIndex.KeyRing> referenceRings = reference.getKeyRings();
+        Map<String, KeysIndex.KeyRing> otherRings = other.getKeyRings();
+
+        List<KeysIndex.KeyRing> added = new ArrayList<>();
+        List<KeysIndex.KeyRing> changed = new ArrayList<>();
+        for (KeysIndex.KeyRing ring : otherRings.values()) {
+            KeysIndex.KeyRing referenceRing = referenceRings.get(ring.fingerprint());
+            if (referenceRing == null) {
+                added.add(ring);
+            } else if (!referenceRing.digest().equals(ring.digest())) {
+                changed.add(ring);
+            }
+        }
+
+        List<KeysIndex.KeyRing> removed = new ArrayList<>();
+        for (KeysIndex.KeyRing ring : referenceRings.values()) {
+            if (!otherRings.containsKey(ring.fingerprint())) {
+                removed.add(ring);
+            }
+        }
+        return new KeysDiff(added, removed, changed);
+    }
+
+    /**
+     * @return <code>true</code> if both files contain the same keys
+     */
+    boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return added.size() + " added, " + removed.size() + " removed, " + changed.size() + " changed";
+    }
+}
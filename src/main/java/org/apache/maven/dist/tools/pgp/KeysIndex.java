@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.pgp;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bouncycastle.openpgp.PGPException;
+import org.bouncycastle.openpgp.PGPPublicKey;
+import org.bouncycastle.openpgp.PGPPublicKeyRing;
+import org.bouncycastle.openpgp.PGPUtil;
+import org.bouncycastle.openpgp.bc.BcPGPPublicKeyRingCollection;
+
+/**
+ * PGP public keys of a <code>KEYS</code> file, indexed by key id (including sub-keys) and key rings by primary key
+ * fingerprint, parsed in one pass.
+ */
+public class KeysIndex {
+    private static final String BEGIN = "-----BEGIN PGP PUBLIC KEY BLOCK-----";
+    private static final String END = "-----END PGP PUBLIC KEY BLOCK-----";
+    private static final HexFormat HEX = HexFormat.of().withUpperCase();
+
+    /**
+     * A key ring of a <code>KEYS</code> file.
+     *
+     * @param fingerprint the upper case hex fingerprint of the primary key
+     * @param userId the primary user id, or null
+     * @param digest the SHA-256 of the binary key ring, that changes with user ids, sub-keys or signatures
+     */
+    public record KeyRing(String fingerprint, String userId, String digest) {}
+
+    private final Map<Long, PGPPublicKey> keys = new HashMap<>();
+
+    private final Map<String, KeyRing> rings = new LinkedHashMap<>();
+
+    private final Map<Long, String> userIds = new HashMap<>();
+
+    private final List<String> parseErrors = new ArrayList<>();
+
+    private KeysIndex() {}
+
+    /**
+     * Parse a <code>KEYS</code> file: every armored public key block is parsed as soon as it is read, invalid blocks
+     * and a block truncated by the end of file being recorded as parse errors and ignored.
+     *
+     * @param in the <code>KEYS</code> file content
+     * @return the index
+     * @throws IOException if the content cannot be read
+     */
+    public static KeysIndex load(InputStream in) throws IOException {
+        KeysIndex index = new KeysIndex();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        StringBuilder block = null;
+        int blockLine = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.startsWith(BEGIN)) {
+                if (block != null) {
+                    index.parseErrors.add("line " + blockLine + ": key block not terminated");
+                }
+                block = new StringBuilder();
+                blockLine = lineNumber;
+            }
+            if (block != null) {
+                block.append(line).append('\n');
+                if (line.startsWith(END)) {
+                    index.add(block.toString(), blockLine);
+                    block = null;
+                }
+            }
+        }
+        if (block != null) {
+            index.parseErrors.add("line " + blockLine + ": key block truncated by end of file");
+        }
+        return index;
+    }
+
+    private void add(String armoredBlock, int blockLine) throws IOException {
+        try (InputStream in =
+                PGPUtil.getDecoderStream(new ByteArrayInputStream(armoredBlock.getBytes(StandardCharsets.US_ASCII)))) {
+            for (PGPPublicKeyRing ring : new BcPGPPublicKeyRingCollection(in)) {
+                Iterator<String> ids = ring.getPublicKey().getUserIDs();
+                String userId = ids.hasNext() ? ids.next() : null;
+                for (PGPPublicKey key : ring) {
+                    keys.put(key.getKeyID(), key);
+                    userIds.put(key.getKeyID(), userId);
+                }
+                String fingerprint = HEX.formatHex(ring.getPublicKey().getFingerprint());
+                rings.put(fingerprint, new KeyRing(fingerprint, userId, HEX.formatHex(sha256(ring.getEncoded()))));
+            }
+        } catch (PGPException | IOException | RuntimeException e) {
+            parseErrors.add("line " + blockLine + ": " + e.getMessage());
+        }
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by the Java platform", e);
+        }
+    }
+
+    /**
+     * Get key rings by primary key fingerprint.
+     *
+     * @return the key rings, in file order
+     */
+    public Map<String, KeyRing> getKeyRings() {
+        return Collections.unmodifiableMap(rings);
+    }
+
+    /**
+     * Get a public key.
+     *
+     * @param keyId the key id, as found in a signature
+     * @return the key, or <code>null</code> if not in the <code>KEYS</code> file
+     */
+    public PGPPublicKey getKey(long keyId) {
+        return keys.get(keyId);
+    }
+
+    /**
+     * Get the primary user id of the key ring containing a key.
+     *
+     * @param keyId the key id
+     * @return the user id, or <code>null</code>
+     */
+    public String getUserId(long keyId) {
+        return userIds.get(keyId);
+    }
+
+    /**
+     * @return number of keys, including sub-keys
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * @return number of armored blocks that could not be parsed
+     */
+    public int getInvalidBlocks() {
+        return parseErrors.size();
+    }
+
+    /**
+     * Get the parse errors, one per invalid or truncated armored block.
+     *
+     * @return the errors, with the line of the block start
+     */
+    public List<String> getParseErrors() {
+        return Collections.unmodifiableList(parseErrors);
+    }
+}
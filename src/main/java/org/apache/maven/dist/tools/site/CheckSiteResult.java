@@ -18,21 +18,35 @@
  */
 package org.apache.maven.dist.tools.site;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.maven.dist.tools.AbstractCheckResult;
 import org.apache.maven.dist.tools.AbstractDistCheckReport;
 import org.apache.maven.dist.tools.ConfigurationLineInfo;
+import org.apache.maven.dist.tools.ResultRecord;
 import org.apache.maven.doxia.sink.Sink;
 import org.jsoup.nodes.Comment;
 import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
 
 class CheckSiteResult extends AbstractCheckResult {
     private String url;
 
-    private Map<HTMLChecker, Boolean> checkMap = new HashMap<>();
+    private String httpErrorUrl;
+
+    private final Map<HTMLChecker, Boolean> checkMap = new LinkedHashMap<>();
 
     private int statusCode = -1;
 
@@ -66,8 +80,16 @@ class CheckSiteResult extends AbstractCheckResult {
         return checkMap;
     }
 
-    void setHTTPErrorUrl(int status) {
+    void setHTTPErrorUrl(int status, String url) {
         this.statusCode = status;
+        this.httpErrorUrl = url;
+    }
+
+    /**
+     * @return the url that returned an HTTP error, or <code>null</code>
+     */
+    String getHttpErrorUrl() {
+        return httpErrorUrl;
     }
 
     /**
@@ -120,9 +142,43 @@ class CheckSiteResult extends AbstractCheckResult {
         return comment.contains(skinName);
     }
 
-    void setDocument(Document doc) {
-        comment = extractComment(doc);
-        statusCode = (doc == null) ? -1 : DistCheckSiteReport.HTTP_OK;
+    /**
+     * Stream-parse a site page, and stop reading as soon as every checker of the page skin found its version marker:
+     * the skin comment is at the very beginning of the page and version markers are in the page header, so the rest of
+     * the page is never downloaded.
+     *
+     * @param in the site page content, possibly truncated to a byte budget
+     * @param charset the content charset
+     * @param markers the compiled version markers of the skin checkers
+     * @throws IOException if the content cannot be read
+     */
+    void probe(InputStream in, Charset charset, VersionMarkers markers) throws IOException {
+        String version = getVersion();
+        try (StreamParser parser =
+                new StreamParser(Parser.htmlParser()).parse(new InputStreamReader(in, charset), url)) {
+            // elements are returned once closed, so their text is complete
+            Iterator<Element> elements = parser.iterator();
+            Document doc = parser.document();
+            String pageComment = null;
+            String skin = null;
+            boolean allFound = false;
+            while (!allFound && elements.hasNext()) {
+                Element element = elements.next();
+                if (pageComment == null) {
+                    // the leading comment is parsed before any element is returned
+                    pageComment = extractComment(doc);
+                    skin = markers.detectSkin(pageComment);
+                }
+                allFound = markers.check(doc, element, version, skin, checkMap);
+            }
+            comment = pageComment == null ? extractComment(doc) : pageComment;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        markers.complete(checkMap);
+        // only once the page was read, so that a read error does not leave a partial result
+        statusCode = DistCheckSiteReport.HTTP_OK;
     }
 
     static String extractComment(Document document) {
@@ -142,4 +198,30 @@ class CheckSiteResult extends AbstractCheckResult {
     String getScreenShot() {
         return screenshotName;
     }
+
+    ResultRecord toRecord(String report) {
+        List<String> errors = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+        Map<String, String> details = new LinkedHashMap<>();
+        details.put("url", url);
+        details.put("statusCode", String.valueOf(statusCode));
+
+        if (statusCode != DistCheckSiteReport.HTTP_OK) {
+            errors.add("HTTP result code: " + statusCode + " for " + url);
+        } else {
+            details.put("skin", isSkin("Fluido") ? "Fluido" : isSkin("Stylus") ? "Stylus" : "Not determined");
+            List<String> found = new ArrayList<>();
+            for (Map.Entry<HTMLChecker, Boolean> e : checkMap.entrySet()) {
+                if (e.getValue()) {
+                    found.add(e.getKey().getName());
+                }
+            }
+            if (found.isEmpty()) {
+                warnings.add("artifact version not found");
+            } else {
+                details.put("versionDisplayed", String.join(", ", found));
+            }
+        }
+        return toRecord(report, errors, warnings, details);
+    }
 }
@@ -18,25 +18,29 @@
  */
 package org.apache.maven.dist.tools.site;
 
+import javax.inject.Inject;
+
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-import org.apache.maven.artifact.Artifact;
-import org.apache.maven.artifact.factory.ArtifactFactory;
-import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.maven.dist.tools.AbstractDistCheckReport;
 import org.apache.maven.dist.tools.ConfigurationLineInfo;
-import org.apache.maven.dist.tools.JsoupRetry;
+import org.apache.maven.dist.tools.HttpRetry;
+import org.apache.maven.dist.tools.ResultRecord;
 import org.apache.maven.doxia.sink.Sink;
-import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.project.MavenProject;
-import org.apache.maven.project.MavenProjectBuilder;
 import org.apache.maven.reporting.MavenReportException;
 import org.jsoup.HttpStatusException;
-import org.jsoup.nodes.Document;
 
 /**
  * <p>DistCheckSiteReport class.</p>
@@ -48,10 +52,17 @@ public class DistCheckSiteReport extends AbstractDistCheckReport {
     /** Constant <code>FAILURES_FILENAME="check-site.log"</code> */
     public static final String FAILURES_FILENAME = "check-site.log";
 
+    private final VersionMarkers markers;
+
     /**
      * <p>Constructor for DistCheckSiteReport.</p>
+     *
+     * @param checkers the skin checkers injected as Sisu components, completed with <code>ServiceLoader</code>
      */
-    public DistCheckSiteReport() {}
+    @Inject
+    public DistCheckSiteReport(Map<String, HTMLChecker> checkers) {
+        this.markers = new VersionMarkers(HTMLCheckerFactory.getCheckers(checkers.values()));
+    }
 
     /**
      * Ignore site failure for <code>artifactId</code> or <code>artifactId:version</code>
@@ -60,22 +71,11 @@ public class DistCheckSiteReport extends AbstractDistCheckReport {
     protected List<String> ignoreSiteFailures;
 
     /**
-     * Artifact factory.
-     */
-    @Component
-    protected ArtifactFactory artifactFactory;
-
-    /**
-     * Local repository.
-     */
-    @Parameter(defaultValue = "${localRepository}", required = true, readonly = true)
-    protected ArtifactRepository localRepository;
-
-    /**
-     * Maven project builder.
+     * Maximum number of bytes read from a site page to find the skin comment and the artifact version markers,
+     * <code>0</code> to read whole pages. Reading stops earlier as soon as every marker is found.
      */
-    @Component
-    protected MavenProjectBuilder mavenProjectBuilder;
+    @Parameter(property = "siteProbeMaxBytes", defaultValue = "262144")
+    protected int siteProbeMaxBytes;
 
     /**
      * Http status ok code.
@@ -111,7 +111,8 @@ public class DistCheckSiteReport extends AbstractDistCheckReport {
 
     // keep result
     private List<CheckSiteResult> results = new LinkedList<>();
-    private final List<HTMLChecker> checkers = HTMLCheckerFactory.getCheckers();
+    private final List<CompletableFuture<Void>> siteFetches = new ArrayList<>();
+    private SiteUrlResolver siteUrlResolver;
 
     /** {@inheritDoc} */
     @Override
@@ -121,7 +122,9 @@ public class DistCheckSiteReport extends AbstractDistCheckReport {
         }
 
         prepareReportData();
+        joinSiteFetches();
 
+        startRender();
         Sink sink = getSink();
         sink.head();
         sink.title();
@@ -216,6 +219,12 @@ public class DistCheckSiteReport extends AbstractDistCheckReport {
         sink.body_();
         sink.flush();
         sink.close();
+
+        List<ResultRecord> records = new ArrayList<>(results.size());
+        for (CheckSiteResult csr : results) {
+            records.add(csr.toRecord(getGoal()));
+        }
+        writeResults(records);
     }
 
     private String getSimplifiedUrl(String url) {
@@ -225,37 +234,112 @@ public class DistCheckSiteReport extends AbstractDistCheckReport {
     private void checkSite(ConfigurationLineInfo cli, String version) {
         CheckSiteResult result = new CheckSiteResult(cli, version);
         results.add(result);
-        try {
-            Artifact artifact = artifactFactory.createProjectArtifact(cli.getGroupId(), cli.getArtifactId(), version);
-            MavenProject artifactProject =
-                    mavenProjectBuilder.buildFromRepository(artifact, artifactRepositories, localRepository, false);
 
+        // site url discovery and site page are done concurrently, errors are reported in configuration order
+        siteFetches.add(runCheckAsync(cli, () -> {
+            if (resolveSiteUrl(result)) {
+                fetchSite(result);
+            }
+        }));
+    }
+
+    private boolean resolveSiteUrl(CheckSiteResult result) {
+        ConfigurationLineInfo cli = result.getConfigurationLine();
+        String version = result.getVersion();
+        try {
             String siteUrl = sites.get(cli.getArtifactId());
             if (siteUrl == null) {
                 siteUrl = sites.get(cli.getArtifactId() + ':' + version);
                 if (siteUrl == null) {
-                    siteUrl = artifactProject.getUrl();
+                    siteUrl = getSiteUrlResolver().resolve(cli, version);
                 }
             }
+            if (siteUrl == null) {
+                getLog().error("no site url in POM nor parents of " + cli.getArtifactId());
+                return false;
+            }
 
             result.setUrl(siteUrl);
-            Document doc = JsoupRetry.get(siteUrl);
-            for (HTMLChecker c : checkers) {
-                result.getCheckMap().put(c, c.isDisplayedArtifactVersionOk(doc, version));
-            }
-            result.setDocument(doc);
+            return true;
+        } catch (Exception ex) {
+            // continue for  other artifact
+            getLog().error(ex.getMessage() + cli.getArtifactId());
+            return false;
+        }
+    }
+
+    private synchronized SiteUrlResolver getSiteUrlResolver() {
+        if (siteUrlResolver == null) {
+            // parent POMs are parsed once for the whole run
+            siteUrlResolver = new SiteUrlResolver(repoBaseUrl);
+        }
+        return siteUrlResolver;
+    }
 
+    private void fetchSite(CheckSiteResult result) {
+        String url = result.getUrl();
+        try {
+            Charset charset = StandardCharsets.UTF_8;
+            InputStream in;
+            if (HttpRetry.isFile(url)) {
+                in = HttpRetry.openStream(url);
+            } else {
+                HttpResponse<InputStream> response = HttpRetry.get(url);
+                charset = getCharset(response);
+                in = response.body();
+            }
+            if (siteProbeMaxBytes > 0) {
+                in = BoundedInputStream.builder()
+                        .setInputStream(in)
+                        .setMaxCount(siteProbeMaxBytes)
+                        .get();
+            }
+            try (InputStream probe = in) {
+                result.probe(probe, charset, markers);
+            }
         } catch (HttpStatusException hes) {
-            addErrorLine(
-                    cli,
-                    version,
-                    ignoreSiteFailures,
-                    "HTTP result code: " + hes.getStatusCode() + " for " + cli.getArtifactId() + " site = "
-                            + hes.getUrl());
-            result.setHTTPErrorUrl(hes.getStatusCode());
+            result.setHTTPErrorUrl(hes.getStatusCode(), hes.getUrl());
         } catch (Exception ex) {
             // continue for  other artifact
-            getLog().error(ex.getMessage() + cli.getArtifactId());
+            getLog().error(ex.getMessage() + result.getConfigurationLine().getArtifactId());
+        }
+    }
+
+    private static Charset getCharset(HttpResponse<?> response) {
+        String contentType = response.headers().firstValue("Content-Type").orElse("");
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index >= 0) {
+            String name = contentType.substring(index + "charset=".length()).replace("\"", "");
+            int end = name.indexOf(';');
+            try {
+                return Charset.forName(
+                        (end < 0) ? name.trim() : name.substring(0, end).trim());
+            } catch (IllegalArgumentException e) {
+                // unknown charset: markers are ASCII anyway
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Wait for site pages, then report HTTP errors in configuration order.
+     */
+    private void joinSiteFetches() {
+        CompletableFuture.allOf(siteFetches.toArray(new CompletableFuture[0])).join();
+        siteFetches.clear();
+
+        for (CheckSiteResult result : results) {
+            if (result.getHttpErrorUrl() != null) {
+                ConfigurationLineInfo cli = result.getConfigurationLine();
+                addErrorLine(
+                        cli,
+                        result.getVersion(),
+                        ignoreSiteFailures,
+                        "site-http",
+                        result.getHttpErrorUrl(),
+                        "HTTP result code: " + result.getStatusCode() + " for " + cli.getArtifactId() + " site = "
+                                + result.getHttpErrorUrl());
+            }
         }
     }
 
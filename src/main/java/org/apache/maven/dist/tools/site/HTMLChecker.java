@@ -19,9 +19,12 @@
 package org.apache.maven.dist.tools.site;
 
 import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 
 /**
  * <p>HTMLChecker interface.</p>
+ * Checkers are discovered as Sisu <code>@Named</code> components or with <code>ServiceLoader</code>, so a new skin
+ * can be checked by adding a jar to the plugin dependencies.
  *
  * @author skygo
  */
@@ -41,6 +44,15 @@ public interface HTMLChecker {
      */
     String getSkin();
 
+    /**
+     * CSS selector of the element where this skin displays the artifact version: only the first element matching
+     * in document order is considered. Selectors are compiled once and evaluated by all checkers in a single pass over
+     * each site page.
+     *
+     * @return the version marker selector, like <code>li#projectVersion</code>
+     */
+    String getVersionMarkerSelector();
+
     /**
      * Checks if the documents represents the provided artifact version.
      *
@@ -48,5 +60,8 @@ public interface HTMLChecker {
      * @param version version to check against
      * @return true if version is found
      */
-    boolean isDisplayedArtifactVersionOk(Document doc, String version);
+    default boolean isDisplayedArtifactVersionOk(Document doc, String version) {
+        Element element = doc.selectFirst(getVersionMarkerSelector());
+        return element != null && element.text().contains(version);
+    }
 }
@@ -18,12 +18,14 @@
  */
 package org.apache.maven.dist.tools.site;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
-
-import org.apache.maven.dist.tools.site.checkers.FluidoHTMLChecker;
-import org.apache.maven.dist.tools.site.checkers.StylusLeftHTMLChecker;
-import org.apache.maven.dist.tools.site.checkers.StylusRightHTMLChecker;
+import java.util.ServiceLoader;
+import java.util.Set;
 
 /**
  * <p>HTMLCheckerFactory class.</p>
@@ -35,15 +37,33 @@ public final class HTMLCheckerFactory {
     private HTMLCheckerFactory() {}
 
     /**
-     * get all checker
+     * get all checker, declared in <code>META-INF/services</code>
      *
      * @return list of checker
      */
     public static List<HTMLChecker> getCheckers() {
-        List<HTMLChecker> tmp = new LinkedList<>();
-        tmp.add(new FluidoHTMLChecker());
-        tmp.add(new StylusRightHTMLChecker());
-        tmp.add(new StylusLeftHTMLChecker());
-        return tmp;
+        return getCheckers(Collections.emptyList());
+    }
+
+    /**
+     * get all checker: the injected Sisu components and the ones only declared in <code>META-INF/services</code>,
+     * sorted by name so that reports and skin detection do not depend on the container iteration order
+     *
+     * @param injected checkers injected by the container
+     * @return list of checker, one per implementation class
+     */
+    public static List<HTMLChecker> getCheckers(Collection<HTMLChecker> injected) {
+        List<HTMLChecker> checkers = new ArrayList<>(injected);
+        Set<Class<?>> classes = new HashSet<>();
+        for (HTMLChecker checker : injected) {
+            classes.add(checker.getClass());
+        }
+        for (HTMLChecker checker : ServiceLoader.load(HTMLChecker.class, HTMLChecker.class.getClassLoader())) {
+            if (classes.add(checker.getClass())) {
+                checkers.add(checker);
+            }
+        }
+        checkers.sort(Comparator.comparing(HTMLChecker::getName));
+        return checkers;
     }
 }
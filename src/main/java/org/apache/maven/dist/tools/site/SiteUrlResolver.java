@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.site;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.dist.tools.ConfigurationLineInfo;
+import org.apache.maven.dist.tools.HttpRetry;
+import org.codehaus.plexus.util.xml.pull.MXParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Resolves the site url of an artifact from its POM and its parents, without building the full Maven project:
+ * only coordinates, <code>url</code>, <code>parent</code> and <code>properties</code> are read, and every parsed POM
+ * is cached, so common parents like <code>maven-parent</code> are downloaded once per run.
+ * Thread-safe.
+ */
+class SiteUrlResolver {
+    private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^}]+)}");
+
+    private static final int MAX_PARENTS = 20;
+
+    private static final String APPEND_PATH = "child.project.url.inherit.append.path";
+
+    private final String repoBaseUrl;
+
+    private final Map<String, Pom> poms = new ConcurrentHashMap<>();
+
+    SiteUrlResolver(String repoBaseUrl) {
+        this.repoBaseUrl = repoBaseUrl;
+    }
+
+    /**
+     * The part of a POM used to compute the site url.
+     */
+    record Pom(
+            String groupId,
+            String artifactId,
+            String version,
+            String url,
+            boolean childUrlAppendPath,
+            String parentGroupId,
+            String parentArtifactId,
+            String parentVersion,
+            Map<String, String> properties) {
+        String getGroupId() {
+            return groupId != null ? groupId : parentGroupId;
+        }
+
+        String getVersion() {
+            return version != null ? version : parentVersion;
+        }
+
+        boolean hasParent() {
+            return parentGroupId != null && parentArtifactId != null && parentVersion != null;
+        }
+    }
+
+    /**
+     * Resolve the site url of an artifact.
+     *
+     * @param cli the artifact configuration
+     * @param version the artifact version
+     * @return the site url, or <code>null</code> if neither the POM nor its parents define one
+     * @throws IOException if a POM cannot be read or parsed
+     */
+    String resolve(ConfigurationLineInfo cli, String version) throws IOException {
+        Pom pom = getPom(cli.getVersionnedPomFileURL(repoBaseUrl, version));
+
+        // the chain, from the artifact POM up to the first parent declaring an url
+        List<Pom> chain = new ArrayList<>();
+        chain.add(pom);
+        Pom current = pom;
+        while (current.url() == null && current.hasParent()) {
+            if (chain.size() > MAX_PARENTS) {
+                throw new IOException("too many parents for " + cli.getArtifactId() + ":" + version);
+            }
+            current = getPom(ConfigurationLineInfo.getPomFileURL(
+                    repoBaseUrl, current.parentGroupId(), current.parentArtifactId(), current.parentVersion()));
+            chain.add(current);
+        }
+        if (current.url() == null) {
+            return null;
+        }
+
+        // inherit the url down the chain, then interpolate in the context of the artifact
+        String url = current.url();
+        for (int i = chain.size() - 2; i >= 0; i--) {
+            if (chain.get(i + 1).childUrlAppendPath()) {
+                url = appendPath(url, chain.get(i).artifactId());
+            }
+        }
+        return interpolate(url, chain);
+    }
+
+    /**
+     * Append a child path to an inherited url, like Maven model inheritance does.
+     */
+    static String appendPath(String parentUrl, String childPath) {
+        boolean trailingSlash = parentUrl.endsWith("/");
+        return parentUrl + (trailingSlash ? "" : "/") + childPath + (trailingSlash ? "/" : "");
+    }
+
+    private static String interpolate(String value, List<Pom> chain) {
+        Pom pom = chain.get(0);
+        Map<String, String> values = new HashMap<>();
+        // parent properties first, child ones override
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            values.putAll(chain.get(i).properties());
+        }
+        for (String prefix : new String[] {"project.", "pom.", ""}) {
+            putIfNotNull(values, prefix + "groupId", pom.getGroupId());
+            putIfNotNull(values, prefix + "artifactId", pom.artifactId());
+            putIfNotNull(values, prefix + "version", pom.getVersion());
+        }
+        putIfNotNull(values, "project.parent.groupId", pom.parentGroupId());
+        putIfNotNull(values, "project.parent.artifactId", pom.parentArtifactId());
+        putIfNotNull(values, "project.parent.version", pom.parentVersion());
+
+        String result = value;
+        // properties may reference other properties
+        for (int i = 0; i < MAX_PARENTS && result.contains("${"); i++) {
+            Matcher m = EXPRESSION.matcher(result);
+            StringBuilder sb = new StringBuilder();
+            boolean replaced = false;
+            while (m.find()) {
+                String v = values.get(m.group(1));
+                replaced |= v != null;
+                m.appendReplacement(sb, Matcher.quoteReplacement(v != null ? v : m.group()));
+            }
+            m.appendTail(sb);
+            result = sb.toString();
+            if (!replaced) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static void putIfNotNull(Map<String, String> values, String key, String value) {
+        if (value != null) {
+            values.put(key, value);
+        }
+    }
+
+    private Pom getPom(String url) throws IOException {
+        Pom pom = poms.get(url);
+        if (pom == null) {
+            // concurrent reads of the same POM are harmless, the first one parsed is kept
+            try (InputStream in = HttpRetry.openStream(url)) {
+                pom = parse(in);
+            } catch (XmlPullParserException e) {
+                throw new IOException("unable to parse " + url, e);
+            } catch (IOException ioe) {
+                throw new IOException("IOException while reading " + url, ioe);
+            }
+            Pom previous = poms.putIfAbsent(url, pom);
+            if (previous != null) {
+                pom = previous;
+            }
+        }
+        return pom;
+    }
+
+    /**
+     * Stream-parse a POM, skipping every element but the few ones needed to compute the site url.
+     *
+     * @param in the POM content
+     * @return the parsed POM part
+     * @throws IOException if the content cannot be read
+     * @throws XmlPullParserException if the content is not a valid XML document
+     */
+    static Pom parse(InputStream in) throws IOException, XmlPullParserException {
+        XmlPullParser parser = new MXParser();
+        parser.setInput(in, null);
+
+        String groupId = null;
+        String artifactId = null;
+        String version = null;
+        String url = null;
+        boolean appendPath = true;
+        String parentGroupId = null;
+        String parentArtifactId = null;
+        String parentVersion = null;
+        Map<String, String> properties = new HashMap<>();
+
+        parser.nextTag();
+        for (int i = 0; i < parser.getAttributeCount(); i++) {
+            if (APPEND_PATH.equals(parser.getAttributeName(i))) {
+                appendPath = Boolean.parseBoolean(parser.getAttributeValue(i).trim());
+            }
+        }
+        while (parser.nextTag() == XmlPullParser.START_TAG) {
+            switch (parser.getName()) {
+                case "groupId":
+                    groupId = readText(parser);
+                    break;
+                case "artifactId":
+                    artifactId = readText(parser);
+                    break;
+                case "version":
+                    version = readText(parser);
+                    break;
+                case "url":
+                    url = readText(parser);
+                    break;
+                case "parent":
+                    while (parser.nextTag() == XmlPullParser.START_TAG) {
+                        String name = parser.getName();
+                        String text = readText(parser);
+                        if ("groupId".equals(name)) {
+                            parentGroupId = text;
+                        } else if ("artifactId".equals(name)) {
+                            parentArtifactId = text;
+                        } else if ("version".equals(name)) {
+                            parentVersion = text;
+                        }
+                    }
+                    break;
+                case "properties":
+                    while (parser.nextTag() == XmlPullParser.START_TAG) {
+                        String name = parser.getName();
+                        properties.put(name, readText(parser));
+                    }
+                    break;
+                default:
+                    skip(parser);
+            }
+        }
+
+        return new Pom(
+                groupId,
+                artifactId,
+                version,
+                url,
+                appendPath,
+                parentGroupId,
+                parentArtifactId,
+                parentVersion,
+                Collections.unmodifiableMap(properties));
+    }
+
+    /**
+     * Read the text of the current element, skipping any nested element.
+     */
+    private static String readText(XmlPullParser parser) throws IOException, XmlPullParserException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            switch (parser.next()) {
+                case XmlPullParser.START_TAG:
+                    depth++;
+                    break;
+                case XmlPullParser.END_TAG:
+                    depth--;
+                    break;
+                case XmlPullParser.TEXT:
+                    if (depth == 1) {
+                        text.append(parser.getText());
+                    }
+                    break;
+                default:
+            }
+        }
+        return text.toString().trim();
+    }
+
+    private static void skip(XmlPullParser parser) throws IOException, XmlPullParserException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = parser.next();
+            if (event == XmlPullParser.START_TAG) {
+                depth++;
+            } else if (event == XmlPullParser.END_TAG) {
+                depth--;
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.site;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+/**
+ * Version marker selectors of all checkers, compiled once per run and evaluated together on each element of a site
+ * page. Thread-safe.
+ */
+class VersionMarkers {
+    private final List<HTMLChecker> checkers;
+
+    private final List<Evaluator> evaluators = new ArrayList<>();
+
+    /**
+     * @param checkers the skin checkers
+     */
+    VersionMarkers(List<HTMLChecker> checkers) {
+        this.checkers = Collections.unmodifiableList(new ArrayList<>(checkers));
+        for (HTMLChecker checker : this.checkers) {
+            evaluators.add(QueryParser.parse(checker.getVersionMarkerSelector()));
+        }
+    }
+
+    List<HTMLChecker> getCheckers() {
+        return checkers;
+    }
+
+    /**
+     * Get the skin of a site page from its generator comment.
+     *
+     * @param comment the leading comment of the page
+     * @return the skin of the first checker named in the comment, or <code>null</code> if not determined
+     */
+    String detectSkin(String comment) {
+        for (HTMLChecker checker : checkers) {
+            if (comment.contains(checker.getSkin())) {
+                return checker.getSkin();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check an element against the markers not found yet. Once the skin of the page is known, from its generator
+     * comment or from the first marker found, only the checkers of that skin are evaluated.
+     *
+     * @param root the document root, for structural selectors
+     * @param element the element
+     * @param version the artifact version
+     * @param skin the skin detected from the generator comment, or <code>null</code> if not determined
+     * @param found the checkers whose marker was found, in the order they were found, with the version check result
+     * @return <code>true</code> once every marker of the page skin was found, meaning the rest of the page can be
+     *         skipped
+     */
+    boolean check(Element root, Element element, String version, String skin, Map<HTMLChecker, Boolean> found) {
+        String pageSkin = skin;
+        if (pageSkin == null && !found.isEmpty()) {
+            pageSkin = found.keySet().iterator().next().getSkin();
+        }
+        for (int i = 0; i < checkers.size(); i++) {
+            HTMLChecker checker = checkers.get(i);
+            if ((pageSkin == null || pageSkin.equals(checker.getSkin()))
+                    && !found.containsKey(checker)
+                    && evaluators.get(i).matches(root, element)) {
+                found.put(checker, element.text().contains(version));
+            }
+        }
+        if (pageSkin == null) {
+            if (found.isEmpty()) {
+                return false;
+            }
+            pageSkin = found.keySet().iterator().next().getSkin();
+        }
+        for (HTMLChecker checker : checkers) {
+            if (pageSkin.equals(checker.getSkin()) && !found.containsKey(checker)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mark checkers whose marker was not found.
+     *
+     * @param found the checkers whose marker was found
+     */
+    void complete(Map<HTMLChecker, Boolean> found) {
+        for (HTMLChecker checker : checkers) {
+            found.putIfAbsent(checker, Boolean.FALSE);
+        }
+    }
+}
@@ -18,15 +18,18 @@
  */
 package org.apache.maven.dist.tools.site.checkers;
 
+import javax.inject.Named;
+import javax.inject.Singleton;
+
 import org.apache.maven.dist.tools.site.HTMLChecker;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 
 /**
  * Check if artifact version is present in fluido skin.
  *
  * @author skygo
  */
+@Named("fluido")
+@Singleton
 public class FluidoHTMLChecker implements HTMLChecker {
     /**
      * Fluido Html Checker
@@ -47,8 +50,7 @@ public class FluidoHTMLChecker implements HTMLChecker {
 
     /** {@inheritDoc} */
     @Override
-    public boolean isDisplayedArtifactVersionOk(Document doc, String version) {
-        Element links = doc.select("li#projectVersion").first();
-        return (links != null) && links.text().contains(version);
+    public String getVersionMarkerSelector() {
+        return "li#projectVersion";
     }
 }
@@ -18,15 +18,18 @@
  */
 package org.apache.maven.dist.tools.site.checkers;
 
+import javax.inject.Named;
+import javax.inject.Singleton;
+
 import org.apache.maven.dist.tools.site.HTMLChecker;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 
 /**
  * Check if artifact version is present on right side in stylus skin.
  *
  * @author skygo
  */
+@Named("stylus-right")
+@Singleton
 public class StylusRightHTMLChecker implements HTMLChecker {
     /**
      * Stylus Right Html Checker
@@ -47,9 +50,7 @@ public class StylusRightHTMLChecker implements HTMLChecker {
 
     /** {@inheritDoc} */
     @Override
-    public boolean isDisplayedArtifactVersionOk(Document doc, String version) {
-        Element links = doc.select("div.xright").first();
-
-        return (links != null) && links.text().contains(version);
+    public String getVersionMarkerSelector() {
+        return "div.xright";
     }
 }
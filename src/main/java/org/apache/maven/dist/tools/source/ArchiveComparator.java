@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.source;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.regex.Matcher;
+
+import org.apache.maven.dist.tools.HttpRetry;
+
+/**
+ * Compare the same source release archive published in central repository and in distribution area, using cheap
+ * signals first: <code>Content-Length</code>, ETag and published <code>.sha512</code> content. Archives are downloaded
+ * and hashed only when these signals are inconclusive.
+ */
+class ArchiveComparator {
+    /**
+     * How archives were compared.
+     */
+    enum Method {
+        CONTENT_LENGTH,
+        ETAG,
+        PUBLISHED_SHA512,
+        DOWNLOADED_SHA512
+    }
+
+    /**
+     * Comparison result.
+     *
+     * @param same <code>true</code> if archives are identical
+     * @param method the signal that settled the comparison
+     * @param detail human readable explanation
+     */
+    record Comparison(boolean same, Method method, String detail) {}
+
+    private record Head(long length, String etag) {}
+
+    private final DigestCache cache;
+
+    ArchiveComparator(DigestCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Compare archives.
+     *
+     * @param centralUrl the central archive url
+     * @param centralSha512Url the central published <code>.sha512</code> url, or <code>null</code> if not published
+     * @param distUrl the dist archive url
+     * @param distSha512Url the dist published <code>.sha512</code> url, or <code>null</code> if not published
+     * @return the comparison
+     * @throws IOException if a url cannot be read
+     */
+    Comparison compare(String centralUrl, String centralSha512Url, String distUrl, String distSha512Url)
+            throws IOException {
+        Head central = head(centralUrl);
+        Head dist = head(distUrl);
+        if (central.length() >= 0 && dist.length() >= 0 && central.length() != dist.length()) {
+            return new Comparison(
+                    false,
+                    Method.CONTENT_LENGTH,
+                    "size " + central.length() + " in central vs " + dist.length() + " in dist");
+        }
+        // a strong ETag identifies content, but only when both are served by the same server
+        if (isStrong(central.etag()) && central.etag().equals(dist.etag()) && isSameServer(centralUrl, distUrl)) {
+            return new Comparison(true, Method.ETAG, "same ETag " + central.etag());
+        }
+
+        String centralSha512 = readSha512(centralSha512Url);
+        String distSha512 = readSha512(distSha512Url);
+        if (centralSha512 != null && centralSha512.equals(distSha512)) {
+            return new Comparison(true, Method.PUBLISHED_SHA512, "same published SHA-512");
+        }
+
+        // inconclusive: missing or different published checksums, download
+        String centralDigest = cache.digest(centralUrl).sha512();
+        String distDigest = cache.digest(distUrl).sha512();
+        if (centralDigest.equals(distDigest)) {
+            return new Comparison(true, Method.DOWNLOADED_SHA512, "same downloaded SHA-512");
+        }
+        return new Comparison(
+                false,
+                Method.DOWNLOADED_SHA512,
+                "SHA-512 " + centralDigest + " in central vs " + distDigest + " in dist");
+    }
+
+    private static Head head(String url) throws IOException {
+        if (HttpRetry.isFile(url)) {
+            return new Head(Files.size(Paths.get(URI.create(url))), null);
+        }
+        HttpResponse<Void> response = HttpRetry.head(url);
+        return new Head(
+                response.headers().firstValueAsLong("Content-Length").orElse(-1),
+                response.headers().firstValue("ETag").orElse(null));
+    }
+
+    private static boolean isSameServer(String url1, String url2) {
+        URI uri1 = URI.create(url1);
+        URI uri2 = URI.create(url2);
+        return uri1.getHost() != null
+                && uri1.getHost().equalsIgnoreCase(uri2.getHost())
+                && uri1.getPort() == uri2.getPort()
+                && uri1.getScheme().equalsIgnoreCase(uri2.getScheme());
+    }
+
+    private static boolean isStrong(String etag) {
+        return etag != null && !etag.startsWith("W/");
+    }
+
+    private static String readSha512(String url) throws IOException {
+        if (url == null) {
+            return null;
+        }
+        Matcher m = DigestCache.SHA512_PATTERN.matcher(HttpRetry.getString(url));
+        return m.find() ? m.group().toLowerCase(Locale.ROOT) : null;
+    }
+}
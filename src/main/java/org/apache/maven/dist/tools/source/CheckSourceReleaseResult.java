@@ -18,17 +18,44 @@
  */
 package org.apache.maven.dist.tools.source;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.maven.dist.tools.AbstractCheckResult;
 import org.apache.maven.dist.tools.ConfigurationLineInfo;
+import org.apache.maven.dist.tools.ResultRecord;
 
 class CheckSourceReleaseResult extends AbstractCheckResult {
+    private static final String MISSING_CENTRAL = "missing in central: ";
+    private static final String MISSING_DIST = "missing in dist: ";
+    private static final String OLDER_DIST = "older in dist: ";
+    private static final String CHECKSUM = "checksum: ";
+    private static final String SIGNATURE = "signature: ";
+    private static final String COMPARISON = "comparison: ";
 
     List<String> central;
     List<String> dist;
     List<String> distOlder;
 
+    DirectoryListing centralListing;
+    DirectoryListing distListing;
+
+    List<String> checksumErrors = new ArrayList<>();
+    boolean checksumsVerified;
+
+    List<String> signatureErrors = new ArrayList<>();
+    boolean signaturesVerified;
+    String signer;
+
+    ArchiveComparator.Comparison comparison;
+    String comparisonError;
+
+    /** restored from previous run in incremental mode: nothing to verify again */
+    boolean restored;
+
     CheckSourceReleaseResult(ConfigurationLineInfo r, String version) {
         super(r, version);
     }
@@ -44,4 +71,96 @@ class CheckSourceReleaseResult extends AbstractCheckResult {
     void setDistOlderSourceRelease(List<String> checkRepos) {
         distOlder = checkRepos;
     }
+
+    void setListings(DirectoryListing central, DirectoryListing dist) {
+        this.centralListing = central;
+        this.distListing = dist;
+    }
+
+    void addChecksumError(String error) {
+        checksumErrors.add(error);
+    }
+
+    void addSignatureError(String error) {
+        signatureErrors.add(error);
+    }
+
+    ResultRecord toRecord(String report) {
+        List<String> errors = new ArrayList<>();
+        if (central != null) {
+            central.forEach(f -> errors.add(MISSING_CENTRAL + f));
+        }
+        if (dist != null) {
+            dist.forEach(f -> errors.add(MISSING_DIST + f));
+        }
+        if (distOlder != null) {
+            distOlder.forEach(f -> errors.add(OLDER_DIST + f));
+        }
+        checksumErrors.forEach(e -> errors.add(CHECKSUM + e));
+        signatureErrors.forEach(e -> errors.add(SIGNATURE + e));
+        if (comparisonError != null) {
+            errors.add(COMPARISON + comparisonError);
+        }
+
+        Map<String, String> details = new LinkedHashMap<>();
+        if (centralListing != null) {
+            details.put("central", centralListing.getUrl());
+        }
+        if (distListing != null) {
+            details.put("dist", distListing.getUrl());
+        }
+        details.put("releaseDate", getConfigurationLine().getReleaseDateFromMetadata());
+        if (checksumsVerified) {
+            details.put("checksums", checksumErrors.isEmpty() ? "verified" : "invalid");
+        }
+        if (signer != null) {
+            details.put("signer", signer);
+        }
+        if (comparison != null) {
+            details.put("comparison", comparison.method() + ": " + comparison.detail());
+            details.put("comparisonSame", String.valueOf(comparison.same()));
+        }
+        return toRecord(report, errors, Collections.emptyList(), details);
+    }
+
+    /**
+     * Restore a result from its record, written by a previous run.
+     *
+     * @param record the record
+     * @param inDistributionArea is the artifact expected in distribution area
+     */
+    void restore(ResultRecord record, boolean inDistributionArea) {
+        restored = true;
+        central = new ArrayList<>();
+        dist = inDistributionArea ? new ArrayList<>() : null;
+        distOlder = inDistributionArea ? new ArrayList<>() : null;
+        for (String issue : record.issues()) {
+            if (issue.startsWith(MISSING_CENTRAL)) {
+                central.add(issue.substring(MISSING_CENTRAL.length()));
+            } else if (issue.startsWith(MISSING_DIST) && dist != null) {
+                dist.add(issue.substring(MISSING_DIST.length()));
+            } else if (issue.startsWith(OLDER_DIST) && distOlder != null) {
+                distOlder.add(issue.substring(OLDER_DIST.length()));
+            } else if (issue.startsWith(CHECKSUM)) {
+                checksumErrors.add(issue.substring(CHECKSUM.length()));
+            } else if (issue.startsWith(SIGNATURE)) {
+                signatureErrors.add(issue.substring(SIGNATURE.length()));
+            } else if (issue.startsWith(COMPARISON)) {
+                comparisonError = issue.substring(COMPARISON.length());
+            }
+        }
+
+        Map<String, String> details = record.details();
+        checksumsVerified = details.containsKey("checksums");
+        signer = details.get("signer");
+        signaturesVerified = signer != null || !signatureErrors.isEmpty();
+        String comparisonDetail = details.get("comparison");
+        if (comparisonDetail != null) {
+            int index = comparisonDetail.indexOf(": ");
+            comparison = new ArchiveComparator.Comparison(
+                    Boolean.parseBoolean(details.get("comparisonSame")),
+                    ArchiveComparator.Method.valueOf(comparisonDetail.substring(0, index)),
+                    comparisonDetail.substring(index + 2));
+        }
+    }
 }
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.source;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.apache.maven.dist.tools.HttpRetry;
+
+/**
+ * SHA-512 and SHA-1 digests of remote files, computed while streaming the content and cached by url and ETag:
+ * an unchanged file is never downloaded again.
+ */
+class DigestCache {
+    /** A hex encoded SHA-512, as found in a published <code>.sha512</code> file. */
+    static final Pattern SHA512_PATTERN = Pattern.compile("\\b[0-9a-fA-F]{128}\\b");
+
+    /** A hex encoded SHA-1, as found in a published <code>.sha1</code> file. */
+    static final Pattern SHA1_PATTERN = Pattern.compile("\\b[0-9a-fA-F]{40}\\b");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Digests of a remote file.
+     *
+     * @param etag the ETag of the digested content, or <code>null</code> if the server did not provide one
+     * @param sha512 the hex encoded SHA-512 digest
+     * @param sha1 the hex encoded SHA-1 digest
+     */
+    record Digests(String etag, String sha512, String sha1) {}
+
+    private final File file;
+
+    private final Map<String, Digests> digests = new ConcurrentHashMap<>();
+
+    private DigestCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Load the cache from a file, if it exists.
+     *
+     * @param file the cache file
+     * @return the cache
+     * @throws IOException if the file exists but cannot be read
+     */
+    static DigestCache load(File file) throws IOException {
+        DigestCache cache = new DigestCache(file);
+        if (file.isFile()) {
+            Properties props = new Properties();
+            try (Reader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                props.load(in);
+            }
+            for (String url : props.stringPropertyNames()) {
+                // ETag last, since it may contain spaces
+                String[] values = props.getProperty(url).split(" ", 3);
+                if (values.length == 3) {
+                    cache.digests.put(url, new Digests(values[2], values[0], values[1]));
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Save digests that have an ETag, since they are the only ones that can be validated on next run.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    void save() throws IOException {
+        Properties props = new Properties();
+        digests.forEach((url, d) -> {
+            if (d.etag() != null) {
+                props.setProperty(url, d.sha512() + ' ' + d.sha1() + ' ' + d.etag());
+            }
+        });
+        file.getParentFile().mkdirs();
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            props.store(out, "dist-tool source release digests: url = SHA-512 SHA-1 ETag");
+        }
+    }
+
+    /**
+     * Get digests of a remote file: if already known, a conditional request checks that the content did not change,
+     * otherwise the content is downloaded once and streamed through both digests in constant memory.
+     *
+     * @param url the file url
+     * @return the digests
+     * @throws IOException if the file cannot be read
+     */
+    Digests digest(String url) throws IOException {
+        if (HttpRetry.isFile(url)) {
+            // local mirror: no ETag, digest the file directly
+            try (InputStream in = HttpRetry.openStream(url)) {
+                return digest(in, null);
+            }
+        }
+
+        Digests cached = digests.get(url);
+
+        Map<String, String> headers = new HashMap<>();
+        if (cached != null && cached.etag() != null) {
+            headers.put("If-None-Match", cached.etag());
+        }
+
+        HttpResponse<InputStream> response = HttpRetry.get(url, headers);
+        try (InputStream in = response.body()) {
+            if (response.statusCode() == HttpRetry.HTTP_NOT_MODIFIED && cached != null) {
+                return cached;
+            }
+
+            Digests computed = digest(in, response.headers().firstValue("ETag").orElse(null));
+            digests.put(url, computed);
+            return computed;
+        }
+    }
+
+    private static Digests digest(InputStream in, String etag) throws IOException {
+        MessageDigest sha512 = newMessageDigest("SHA-512");
+        MessageDigest sha1 = newMessageDigest("SHA-1");
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            sha512.update(buffer, 0, read);
+            sha1.update(buffer, 0, read);
+        }
+
+        HexFormat hex = HexFormat.of();
+        return new Digests(etag, hex.formatHex(sha512.digest()), hex.formatHex(sha1.digest()));
+    }
+
+    private static MessageDigest newMessageDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " is required by the Java platform", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.source;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.dist.tools.JsoupRetry;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+/**
+ * Hrefs of a directory index page, read once and shared by every check on the same directory.
+ */
+class DirectoryListing {
+    private final String url;
+
+    private final List<String> hrefs;
+
+    private final Set<String> files;
+
+    DirectoryListing(String url, List<String> hrefs) {
+        this.url = url;
+        this.hrefs = Collections.unmodifiableList(hrefs);
+        this.files = new HashSet<>(hrefs);
+    }
+
+    /**
+     * Download and parse a directory index.
+     *
+     * @param url the directory index url
+     * @return the listing
+     * @throws IOException if the directory index cannot be read
+     */
+    static DirectoryListing read(String url) throws IOException {
+        try {
+            return parse(url, JsoupRetry.get(url));
+        } catch (IOException ioe) {
+            throw new IOException("IOException while reading " + url, ioe);
+        }
+    }
+
+    /**
+     * Extract hrefs of a parsed directory index.
+     *
+     * @param url the directory index url
+     * @param doc the directory index
+     * @return the listing
+     */
+    static DirectoryListing parse(String url, Document doc) {
+        List<String> hrefs = new ArrayList<>();
+        for (Element e : doc.select("a[href]")) {
+            hrefs.add(e.attr("href"));
+        }
+        return new DirectoryListing(url, hrefs);
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return hrefs in document order
+     */
+    List<String> getHrefs() {
+        return hrefs;
+    }
+
+    /**
+     * @param file a file name in this directory
+     * @return the file url
+     */
+    String resolve(String file) {
+        return url + (url.endsWith("/") ? "" : "/") + file;
+    }
+
+    boolean contains(String file) {
+        return files.contains(file);
+    }
+
+    @Override
+    public String toString() {
+        return url + " " + hrefs;
+    }
+}
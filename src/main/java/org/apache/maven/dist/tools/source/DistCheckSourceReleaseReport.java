@@ -18,30 +18,38 @@
  */
 package org.apache.maven.dist.tools.source;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.apache.maven.dist.tools.AbstractDistCheckReport;
 import org.apache.maven.dist.tools.ConfigurationLineInfo;
-import org.apache.maven.dist.tools.JsoupRetry;
+import org.apache.maven.dist.tools.HttpRetry;
+import org.apache.maven.dist.tools.ResultRecord;
+import org.apache.maven.dist.tools.pgp.CheckPgpKeysReport;
+import org.apache.maven.dist.tools.pgp.KeysIndex;
 import org.apache.maven.doxia.markup.HtmlMarkup;
 import org.apache.maven.doxia.sink.Sink;
 import org.apache.maven.doxia.sink.impl.SinkEventAttributeSet;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.reporting.MavenReportException;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
 /**
  * Check presence of source-release.zip in distribution area and central repo
@@ -72,6 +80,38 @@ public class DistCheckSourceReleaseReport extends AbstractDistCheckReport {
     @Parameter
     protected List<String> ignoreDistFailures;
 
+    /**
+     * Verify source release checksums: each source release archive is downloaded once and streamed through SHA-512
+     * and SHA-1, to compare with <code>.sha512</code> (or <code>.sha1</code> for older artifacts) checksum files
+     * published in central repository and in distribution area.
+     * Digests are cached by url and ETag in <code>cacheDirectory</code>, so unchanged archives are not downloaded again.
+     */
+    @Parameter(property = "verifyChecksums", defaultValue = "false")
+    protected boolean verifyChecksums;
+
+    /**
+     * Verify source release detached PGP signatures (<code>.asc</code>) against the keys published in
+     * <code>keysUrl</code>: the <code>KEYS</code> file is parsed once, then archives are streamed through the
+     * signature verifiers in parallel.
+     */
+    @Parameter(property = "verifySignatures", defaultValue = "false")
+    protected boolean verifySignatures;
+
+    /**
+     * Compare source release archives available both in central repository and in distribution area, to detect
+     * mismatched uploads. Cheap signals are used first (<code>Content-Length</code>, ETag, published
+     * <code>.sha512</code>): archives are downloaded and hashed only when these are inconclusive.
+     */
+    @Parameter(property = "compareArchives", defaultValue = "false")
+    protected boolean compareArchives;
+
+    /**
+     * <code>KEYS</code> file used to verify signatures. Like <code>repoBaseUrl</code> and
+     * <code>distributionAreaUrl</code>, can be a <code>file:</code> url to work offline on a local mirror.
+     */
+    @Parameter(property = "keysUrl", defaultValue = CheckPgpKeysReport.PUBLISH_KEYS_2_URL)
+    protected String keysUrl;
+
     /**
      * <p>getFailuresFilename.</p>
      *
@@ -174,6 +214,16 @@ public class DistCheckSourceReleaseReport extends AbstractDistCheckReport {
                 sink.text(cli.getSourceReleaseFilename(csrr.getVersion(), true));
                 iconSuccess(sink);
             }
+            if (csrr.comparison != null && csrr.comparison.same()) {
+                sink.lineBreak();
+                sink.text("= central (" + csrr.comparison.detail() + ")");
+                iconSuccess(sink);
+            }
+            if (csrr.comparisonError != null) {
+                sink.lineBreak();
+                iconError(sink);
+                sink.text(csrr.comparisonError);
+            }
             StringBuilder cliMissing = new StringBuilder();
             for (String missing : csrr.dist) {
                 sink.lineBreak();
@@ -231,6 +281,33 @@ public class DistCheckSourceReleaseReport extends AbstractDistCheckReport {
             iconError(sink);
             sink.rawText(missing);
         }
+        if (csrr.checksumsVerified) {
+            sink.lineBreak();
+            sink.text("checksums");
+            if (csrr.checksumErrors.isEmpty()) {
+                iconSuccess(sink);
+            }
+            for (String error : csrr.checksumErrors) {
+                sink.lineBreak();
+                iconError(sink);
+                sink.text(error);
+            }
+        }
+        if (csrr.signaturesVerified) {
+            sink.lineBreak();
+            sink.text("signature");
+            if (csrr.signatureErrors.isEmpty()) {
+                iconSuccess(sink);
+            }
+            if (csrr.signer != null) {
+                sink.text(" " + csrr.signer);
+            }
+        }
+        for (String error : csrr.signatureErrors) {
+            sink.lineBreak();
+            iconError(sink);
+            sink.text(error);
+        }
         sink.tableCell_();
 
         sink.tableCell_();
@@ -246,6 +323,33 @@ public class DistCheckSourceReleaseReport extends AbstractDistCheckReport {
 
         prepareReportData();
 
+        if (verifyChecksums || compareArchives) {
+            File cacheFile = new File(cacheDirectory, "source-release-digests.properties");
+            DigestCache cache;
+            try {
+                cache = DigestCache.load(cacheFile);
+            } catch (IOException ioe) {
+                throw new MavenReportException("cannot read " + cacheFile, ioe);
+            }
+
+            if (verifyChecksums) {
+                verifyChecksums(cache);
+            }
+            if (compareArchives) {
+                compareArchives(cache);
+            }
+
+            try {
+                cache.save();
+            } catch (IOException ioe) {
+                getLog().warn("cannot write " + cacheFile + ": " + ioe.getMessage());
+            }
+        }
+
+        if (verifySignatures) {
+            verifySignatures();
+        }
+
         DirectoryStatistics stats = new DirectoryStatistics("", "org.apache.maven"); // global stats
 
         List<DirectoryStatistics> statistics = new ArrayList<>();
@@ -261,6 +365,7 @@ public class DistCheckSourceReleaseReport extends AbstractDistCheckReport {
             stats.addArtifact(csrr);
         }
 
+        startRender();
         Sink sink = getSink();
         sink.head();
         sink.title();
@@ -339,6 +444,12 @@ public class DistCheckSourceReleaseReport extends AbstractDistCheckReport {
         sink.body_();
         sink.flush();
         sink.close();
+
+        List<ResultRecord> records = new ArrayList<>(results.size());
+        for (CheckSourceReleaseResult csrr : results) {
+            records.add(csrr.toRecord(getGoal()));
+        }
+        writeResults(records);
     }
 
     private void reportStatisticsHeader(DirectoryStatistics current, Sink sink) {
@@ -383,40 +494,218 @@ public class DistCheckSourceReleaseReport extends AbstractDistCheckReport {
         return "^" + artifact + "-([0-9].*)-source-release.*$";
     }
 
-    private String cachedUrl;
+    private CompletableFuture<DirectoryListing> readAsync(String url) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return DirectoryListing.read(url);
+                    } catch (IOException ioe) {
+                        throw new CompletionException(ioe);
+                    }
+                },
+                getExecutor());
+    }
 
-    private Document cachedDocument;
+    private static DirectoryListing join(CompletableFuture<DirectoryListing> listing) throws IOException {
+        try {
+            return listing.join();
+        } catch (CompletionException ce) {
+            if (ce.getCause() instanceof IOException) {
+                throw (IOException) ce.getCause();
+            }
+            throw ce;
+        }
+    }
 
-    private Document read(String url) throws IOException {
-        if (url.startsWith(distributionAreaUrl)) {
-            // distribution area: cache content, since it is read multiple times
-            if (!url.equals(cachedUrl)) {
-                cachedUrl = url;
-                cachedDocument = JsoupRetry.get(url);
+    private void verifyChecksums(DigestCache cache) {
+        // archives are downloaded in parallel, but errors are reported afterwards in configuration order
+        List<CompletableFuture<Void>> verifications = new ArrayList<>();
+        for (CheckSourceReleaseResult result : results) {
+            if (!result.restored) {
+                verifications.add(runCheckAsync(result.getConfigurationLine(), () -> verifyChecksums(result, cache)));
             }
-            return cachedDocument;
+        }
+        CompletableFuture.allOf(verifications.toArray(new CompletableFuture[0])).join();
+
+        for (CheckSourceReleaseResult result : results) {
+            for (String error : result.checksumErrors) {
+                addErrorLine(
+                        result.getConfigurationLine(),
+                        result.getVersion(),
+                        ignoreDistFailures,
+                        "checksum",
+                        null,
+                        error);
+            }
+        }
+    }
+
+    private void verifyChecksums(CheckSourceReleaseResult result, DigestCache cache) {
+        ConfigurationLineInfo cli = result.getConfigurationLine();
+        String version = result.getVersion();
+        String centralFile = cli.getSourceReleaseFilename(version, false);
+        String distFile = cli.getSourceReleaseFilename(version, true);
+
+        boolean inCentral = result.centralListing != null && result.centralListing.contains(centralFile);
+        boolean inDist = result.distListing != null && result.distListing.contains(distFile);
+        if (!inCentral && !inDist) {
+            // nothing to verify
+            return;
+        }
+
+        try {
+            DigestCache.Digests centralDigests = null;
+            if (inCentral) {
+                centralDigests = cache.digest(result.centralListing.resolve(centralFile));
+                verifyChecksum(result, result.centralListing, centralFile, centralDigests);
+            }
+            if (inDist) {
+                // same file name means same archive: no need to download it again from dist
+                DigestCache.Digests distDigests = (centralDigests != null && centralFile.equals(distFile))
+                        ? centralDigests
+                        : cache.digest(result.distListing.resolve(distFile));
+                verifyChecksum(result, result.distListing, distFile, distDigests);
+            }
+            result.checksumsVerified = true;
+        } catch (IOException ioe) {
+            result.addChecksumError("Cannot verify checksums of " + centralFile + ": " + ioe.getMessage());
+        }
+    }
+
+    private void verifyChecksum(
+            CheckSourceReleaseResult result, DirectoryListing listing, String file, DigestCache.Digests digests)
+            throws IOException {
+        String checksumFile;
+        String actual;
+        Pattern checksumPattern;
+        if (listing.contains(file + ".sha512")) {
+            checksumFile = file + ".sha512";
+            actual = digests.sha512();
+            checksumPattern = DigestCache.SHA512_PATTERN;
+        } else if (listing.contains(file + ".sha1")) {
+            checksumFile = file + ".sha1";
+            actual = digests.sha1();
+            checksumPattern = DigestCache.SHA1_PATTERN;
         } else {
-            return JsoupRetry.get(url);
+            // missing checksum file is already reported
+            return;
+        }
+
+        String checksumUrl = listing.resolve(checksumFile);
+        Matcher m = checksumPattern.matcher(HttpRetry.getString(checksumUrl));
+        String expected = m.find() ? m.group().toLowerCase(Locale.ROOT) : "";
+        if (!actual.equals(expected)) {
+            result.addChecksumError("Checksum mismatch for " + listing.resolve(file) + ": " + checksumUrl
+                    + " contains '" + expected + "' but computed " + actual);
         }
     }
 
-    private Elements selectLinks(String repourl) throws IOException {
+    private void compareArchives(DigestCache cache) {
+        ArchiveComparator comparator = new ArchiveComparator(cache);
+
+        List<CompletableFuture<Void>> comparisons = new ArrayList<>();
+        for (CheckSourceReleaseResult result : results) {
+            if (!result.restored) {
+                comparisons.add(
+                        runCheckAsync(result.getConfigurationLine(), () -> compareArchives(result, comparator)));
+            }
+        }
+        CompletableFuture.allOf(comparisons.toArray(new CompletableFuture[0])).join();
+
+        Map<ArchiveComparator.Method, Integer> methods = new EnumMap<>(ArchiveComparator.Method.class);
+        for (CheckSourceReleaseResult result : results) {
+            if (result.comparison != null) {
+                methods.merge(result.comparison.method(), 1, Integer::sum);
+            }
+            if (result.comparisonError != null) {
+                addErrorLine(
+                        result.getConfigurationLine(),
+                        result.getVersion(),
+                        ignoreDistFailures,
+                        "comparison",
+                        null,
+                        result.comparisonError);
+            }
+        }
+        getLog().info("Central vs dist archives comparisons settled by " + methods);
+    }
+
+    private static void compareArchives(CheckSourceReleaseResult result, ArchiveComparator comparator) {
+        ConfigurationLineInfo cli = result.getConfigurationLine();
+        String version = result.getVersion();
+        String centralFile = cli.getSourceReleaseFilename(version, false);
+        String distFile = cli.getSourceReleaseFilename(version, true);
+
+        if (result.distListing == null
+                || !result.centralListing.contains(centralFile)
+                || !result.distListing.contains(distFile)) {
+            // not available in both locations: nothing to compare
+            return;
+        }
+
+        String centralUrl = result.centralListing.resolve(centralFile);
+        String distUrl = result.distListing.resolve(distFile);
         try {
-            return read(repourl).select("a[href]");
+            result.comparison = comparator.compare(
+                    centralUrl,
+                    result.centralListing.contains(centralFile + ".sha512")
+                            ? result.centralListing.resolve(centralFile + ".sha512")
+                            : null,
+                    distUrl,
+                    result.distListing.contains(distFile + ".sha512")
+                            ? result.distListing.resolve(distFile + ".sha512")
+                            : null);
+            if (!result.comparison.same()) {
+                result.comparisonError = "Different source release in central " + centralUrl + " and dist " + distUrl
+                        + ": " + result.comparison.detail();
+            }
         } catch (IOException ioe) {
-            throw new IOException("IOException while reading " + repourl, ioe);
+            result.comparisonError = "Cannot compare " + centralUrl + " with " + distUrl + ": " + ioe.getMessage();
         }
     }
 
-    private List<String> checkContainsOld(String url, ConfigurationLineInfo cli, String version) throws IOException {
-        Elements links = selectLinks(url);
+    private void verifySignatures() throws MavenReportException {
+        KeysIndex keys;
+        try (InputStream in = HttpRetry.openStream(keysUrl)) {
+            keys = KeysIndex.load(in);
+        } catch (IOException ioe) {
+            throw new MavenReportException("cannot read " + keysUrl, ioe);
+        }
+        getLog().info("Loaded " + keys.size() + " PGP keys from " + keysUrl);
+        if (keys.getInvalidBlocks() > 0) {
+            getLog().warn(keys.getInvalidBlocks() + " invalid PGP key blocks ignored in " + keysUrl);
+        }
+
+        SignatureVerifier verifier = new SignatureVerifier(keys, keysUrl);
+
+        // archives are downloaded in parallel, but errors are reported afterwards in configuration order
+        List<CompletableFuture<Void>> verifications = new ArrayList<>();
+        for (CheckSourceReleaseResult result : results) {
+            if (!result.restored) {
+                verifications.add(runCheckAsync(result.getConfigurationLine(), () -> verifier.verify(result)));
+            }
+        }
+        CompletableFuture.allOf(verifications.toArray(new CompletableFuture[0])).join();
+
+        for (CheckSourceReleaseResult result : results) {
+            for (String error : result.signatureErrors) {
+                addErrorLine(
+                        result.getConfigurationLine(),
+                        result.getVersion(),
+                        ignoreDistFailures,
+                        "signature",
+                        null,
+                        error);
+            }
+        }
+    }
 
+    private List<String> checkContainsOld(DirectoryListing listing, ConfigurationLineInfo cli, String version) {
         String sourceReleaseFilename = cli.getSourceReleaseFilename(version, true);
         Pattern sourceReleasePattern = Pattern.compile(getSourceReleasePattern(cli.getArtifactId()));
 
         List<String> retrievedOldFiles = new LinkedList<>();
-        for (Element e : links) {
-            String retrievedFile = e.attr("href");
+        for (String retrievedFile : listing.getHrefs()) {
             Matcher m = sourceReleasePattern.matcher(retrievedFile);
             if (m.matches()) {
                 if (cli.getVersionRange() != null) {
@@ -439,9 +728,18 @@ public class DistCheckSourceReleaseReport extends AbstractDistCheckReport {
                     cli,
                     version,
                     ignoreDistFailures,
-                    "Different version than " + version + " for " + cli.getArtifactId() + " available in " + url);
+                    "older-file",
+                    listing.getUrl(),
+                    "Different version than " + version + " for " + cli.getArtifactId() + " available in "
+                            + listing.getUrl());
             for (String sourceItem : retrievedOldFiles) {
-                addErrorLine(cli, version, ignoreDistFailures, " > " + sourceItem + " <");
+                addErrorLine(
+                        cli,
+                        version,
+                        ignoreDistFailures,
+                        "older-file",
+                        listing.resolve(sourceItem),
+                        " > " + sourceItem + " <");
             }
         }
 
@@ -449,55 +747,107 @@ public class DistCheckSourceReleaseReport extends AbstractDistCheckReport {
     }
 
     /**
-     * Check that url points to a directory index containing expected release files
+     * Check that a directory index contains expected release files
      *
-     * @param url
+     * @param listing
      * @param cli
      * @param version
      * @return missing files
-     * @throws IOException
      */
-    private List<String> checkDirectoryIndex(String url, ConfigurationLineInfo cli, String version, boolean dist)
-            throws IOException {
-        Set<String> retrievedFiles = new HashSet<>();
-        Elements links = selectLinks(url);
-        for (Element e : links) {
-            retrievedFiles.add(e.attr("href"));
-        }
-
+    private List<String> checkDirectoryIndex(
+            DirectoryListing listing, ConfigurationLineInfo cli, String version, boolean dist) {
         String sourceReleaseFilename = cli.getSourceReleaseFilename(version, dist);
 
         List<String> missingFiles = new ArrayList<>();
 
         // require source release file
-        if (!retrievedFiles.contains(sourceReleaseFilename)) {
+        if (!listing.contains(sourceReleaseFilename)) {
             missingFiles.add(sourceReleaseFilename);
         }
         // require source release file signature (.asc)
-        if (!retrievedFiles.contains(sourceReleaseFilename + ".asc")) {
+        if (!listing.contains(sourceReleaseFilename + ".asc")) {
             missingFiles.add(sourceReleaseFilename + ".asc");
         }
         // require source release file checksum (.sha1 or .sha512)
-        if (!(retrievedFiles.contains(sourceReleaseFilename + ".sha1")
-                || retrievedFiles.contains(sourceReleaseFilename + ".sha512"))) {
+        if (!(listing.contains(sourceReleaseFilename + ".sha1")
+                || listing.contains(sourceReleaseFilename + ".sha512"))) {
             missingFiles.add(sourceReleaseFilename + ".sha1 or .sha512");
         }
 
         if (!missingFiles.isEmpty()) {
             boolean error = addErrorLine(
-                    cli, version, ignoreDistFailures, "Missing file for " + cli.getArtifactId() + " in " + url);
+                    cli,
+                    version,
+                    ignoreDistFailures,
+                    "missing-file",
+                    listing.getUrl(),
+                    "Missing file for " + cli.getArtifactId() + " in " + listing.getUrl());
             for (String sourceItem : missingFiles) {
-                addErrorLine(cli, version, ignoreDistFailures, " > " + sourceItem + " <");
+                addErrorLine(
+                        cli, version, ignoreDistFailures, "missing-file", listing.getUrl(), " > " + sourceItem + " <");
             }
             if (error) {
-                getLog().warn("==> when reading " + url + " got following hrefs: " + retrievedFiles);
-                getLog().warn(url + " = " + read(url));
+                getLog().warn("==> when reading " + listing.getUrl() + " got following hrefs: " + listing.getHrefs());
             }
         }
 
         return missingFiles;
     }
 
+    private String getDistUrl(ConfigurationLineInfo configLine, String version) {
+        return distributionAreaUrl
+                + configLine.getDirectory()
+                + (configLine.isSrcBin() ? ("/" + version + "/source") : "");
+    }
+
+    /**
+     * Fingerprint is made of checked version, metadata <code>lastUpdated</code>, enabled verifications and
+     * distribution area directory ETag or last modification date: central content of a release is immutable.
+     */
+    @Override
+    protected String getFingerprint(ConfigurationLineInfo configLine, String version) throws IOException {
+        StringBuilder fingerprint = new StringBuilder(version)
+                .append(' ')
+                .append(configLine.getMetadataLastUpdated())
+                .append(verifyChecksums ? " checksums" : "")
+                .append(verifySignatures ? " signatures" : "")
+                .append(compareArchives ? " compare" : "");
+        if (!NOT_IN_DISTRIBUTION_AREA.equals(configLine.getDirectory())) {
+            String distUrl = getDistUrl(configLine, version);
+            String distVersion;
+            if (HttpRetry.isFile(distUrl)) {
+                distVersion = Files.getLastModifiedTime(Paths.get(URI.create(distUrl)))
+                        .toString();
+            } else {
+                HttpHeaders headers = HttpRetry.head(distUrl).headers();
+                distVersion = headers.firstValue("ETag")
+                        .or(() -> headers.firstValue("Last-Modified"))
+                        .orElse(null);
+            }
+            if (distVersion == null) {
+                // dist change cannot be detected
+                return null;
+            }
+            fingerprint.append(' ').append(distVersion);
+        }
+        return fingerprint.toString();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean isIncrementalSupported() {
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean restoreResult(ConfigurationLineInfo configLine, String version, ResultRecord previous) {
+        CheckSourceReleaseResult result = new CheckSourceReleaseResult(configLine, version);
+        result.restore(previous, !NOT_IN_DISTRIBUTION_AREA.equals(configLine.getDirectory()));
+        results.add(result);
+        return true;
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void checkArtifact(ConfigurationLineInfo configLine, String version) throws MavenReportException {
@@ -505,21 +855,29 @@ public class DistCheckSourceReleaseReport extends AbstractDistCheckReport {
             CheckSourceReleaseResult result = new CheckSourceReleaseResult(configLine, version);
             results.add(result);
 
-            // central
+            // central and dist directory indexes are independent: read them concurrently
             String centralUrl = configLine.getVersionnedFolderURL(repoBaseUrl, version);
-            result.setMissingCentralSourceRelease(checkDirectoryIndex(centralUrl, configLine, version, false));
+            CompletableFuture<DirectoryListing> central = readAsync(centralUrl);
 
             if (NOT_IN_DISTRIBUTION_AREA.equals(configLine.getDirectory())) {
                 // no distribution check
+                DirectoryListing centralListing = join(central);
+                result.setListings(centralListing, null);
+                result.setMissingCentralSourceRelease(checkDirectoryIndex(centralListing, configLine, version, false));
                 return;
             }
 
-            // dist
-            String distUrl = distributionAreaUrl
-                    + configLine.getDirectory()
-                    + (configLine.isSrcBin() ? ("/" + version + "/source") : "");
-            result.setMissingDistSourceRelease(checkDirectoryIndex(distUrl, configLine, version, true));
-            result.setDistOlderSourceRelease(checkContainsOld(distUrl, configLine, version));
+            String distUrl = getDistUrl(configLine, version);
+            CompletableFuture<DirectoryListing> dist = readAsync(distUrl);
+
+            DirectoryListing centralListing = join(central);
+            result.setMissingCentralSourceRelease(checkDirectoryIndex(centralListing, configLine, version, false));
+
+            // dist listing is parsed once for both missing and older files checks
+            DirectoryListing distListing = join(dist);
+            result.setListings(centralListing, distListing);
+            result.setMissingDistSourceRelease(checkDirectoryIndex(distListing, configLine, version, true));
+            result.setDistOlderSourceRelease(checkContainsOld(distListing, configLine, version));
         } catch (IOException ex) {
             throw new MavenReportException(ex.getMessage(), ex);
         }
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.source;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.maven.dist.tools.ConfigurationLineInfo;
+import org.apache.maven.dist.tools.HttpRetry;
+import org.apache.maven.dist.tools.pgp.KeysIndex;
+import org.bouncycastle.openpgp.PGPException;
+import org.bouncycastle.openpgp.PGPPublicKey;
+import org.bouncycastle.openpgp.PGPSignature;
+import org.bouncycastle.openpgp.PGPSignatureList;
+import org.bouncycastle.openpgp.PGPUtil;
+import org.bouncycastle.openpgp.bc.BcPGPObjectFactory;
+import org.bouncycastle.openpgp.operator.bc.BcPGPContentVerifierBuilderProvider;
+
+/**
+ * Verify detached PGP signatures (<code>.asc</code>) of a source release archive in central repository and in
+ * distribution area against the keys of a <code>KEYS</code> file. When both locations publish the same archive, it is
+ * streamed once through both signatures.
+ */
+class SignatureVerifier {
+    private final KeysIndex keys;
+
+    private final String keysUrl;
+
+    /**
+     * @param keys the public keys
+     * @param keysUrl the <code>KEYS</code> file url, for error messages
+     */
+    SignatureVerifier(KeysIndex keys, String keysUrl) {
+        this.keys = keys;
+        this.keysUrl = keysUrl;
+    }
+
+    /**
+     * Verify the signatures of a result listings, adding errors and the signer to the result.
+     * Archives or signatures missing from a listing are already reported as missing files and ignored.
+     *
+     * @param result the result, with its listings
+     */
+    void verify(CheckSourceReleaseResult result) {
+        ConfigurationLineInfo cli = result.getConfigurationLine();
+        String version = result.getVersion();
+        String centralFile = cli.getSourceReleaseFilename(version, false);
+        String distFile = cli.getSourceReleaseFilename(version, true);
+
+        try {
+            PGPSignature central = readSignature(result, result.centralListing, centralFile);
+            PGPSignature dist = readSignature(result, result.distListing, distFile);
+
+            if (central != null && dist != null && centralFile.equals(distFile)) {
+                // same archive: stream it once through both signatures
+                updateSignatures(result.centralListing.resolve(centralFile), central, dist);
+            } else {
+                if (central != null) {
+                    updateSignatures(result.centralListing.resolve(centralFile), central);
+                }
+                if (dist != null) {
+                    updateSignatures(result.distListing.resolve(distFile), dist);
+                }
+            }
+
+            Long centralKey = checkSignature(result, result.centralListing, centralFile, central);
+            Long distKey = checkSignature(result, result.distListing, distFile, dist);
+            if (centralKey != null && distKey != null && !centralKey.equals(distKey)) {
+                result.addSignatureError("Different signers: " + keyId(centralKey) + " (" + keys.getUserId(centralKey)
+                        + ") in central but " + keyId(distKey) + " (" + keys.getUserId(distKey) + ") in dist");
+            }
+            Long signerKey = centralKey != null ? centralKey : distKey;
+            if (signerKey != null) {
+                result.signer = keys.getUserId(signerKey);
+            }
+            result.signaturesVerified = central != null || dist != null;
+        } catch (IOException | PGPException e) {
+            result.addSignatureError("Cannot verify signature of " + centralFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read a detached signature and initialize it with the signing key.
+     *
+     * @return the signature ready to be updated with the archive content, or <code>null</code> if it cannot be verified
+     */
+    private PGPSignature readSignature(CheckSourceReleaseResult result, DirectoryListing listing, String file)
+            throws IOException, PGPException {
+        if (listing == null || !listing.contains(file) || !listing.contains(file + ".asc")) {
+            // missing files are already reported
+            return null;
+        }
+
+        String ascUrl = listing.resolve(file + ".asc");
+        Object signatures;
+        try (InputStream in = PGPUtil.getDecoderStream(HttpRetry.openStream(ascUrl))) {
+            signatures = new BcPGPObjectFactory(in).nextObject();
+        }
+        if (!(signatures instanceof PGPSignatureList) || ((PGPSignatureList) signatures).isEmpty()) {
+            result.addSignatureError("No PGP signature found in " + ascUrl);
+            return null;
+        }
+
+        PGPSignature signature = ((PGPSignatureList) signatures).get(0);
+        PGPPublicKey key = keys.getKey(signature.getKeyID());
+        if (key == null) {
+            result.addSignatureError(
+                    "Unknown key " + keyId(signature.getKeyID()) + " for " + ascUrl + ": not in " + keysUrl);
+            return null;
+        }
+        signature.init(new BcPGPContentVerifierBuilderProvider(), key);
+        return signature;
+    }
+
+    private static void updateSignatures(String url, PGPSignature... signatures) throws IOException {
+        try (InputStream in = HttpRetry.openStream(url)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                for (PGPSignature signature : signatures) {
+                    signature.update(buffer, 0, read);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the signing key id if the signature is good, or <code>null</code>
+     */
+    private static Long checkSignature(
+            CheckSourceReleaseResult result, DirectoryListing listing, String file, PGPSignature signature)
+            throws PGPException {
+        if (signature == null) {
+            return null;
+        }
+        if (signature.verify()) {
+            return signature.getKeyID();
+        }
+        result.addSignatureError(
+                "Bad PGP signature for " + listing.resolve(file) + " with key " + keyId(signature.getKeyID()));
+        return null;
+    }
+
+    private static String keyId(long keyId) {
+        return String.format("%016X", keyId);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.apache.maven.dist.tools.archives.CheckSiteArchivesReport;
+import org.apache.maven.dist.tools.source.DistCheckSourceReleaseReport;
+import org.apache.maven.doxia.sink.impl.Xhtml5BaseSink;
+import org.apache.maven.reporting.MavenReportException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DistCheckErrorsReportTest {
+    private static final String DIST = "https://dist.apache.org/repos/dist/release/maven/doxia/";
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void testFindUrls() {
+        assertThat(DistCheckErrorsReport.findUrls("Unknown key 0123 for " + DIST + "doxia.zip.asc: not in "
+                        + "https://downloads.apache.org/maven/KEYS."))
+                .containsExactly(DIST + "doxia.zip.asc", "https://downloads.apache.org/maven/KEYS");
+        assertThat(DistCheckErrorsReport.findUrls("(see http://maven.apache.org/doxia/)"))
+                .containsExactly("http://maven.apache.org/doxia/");
+        assertThat(DistCheckErrorsReport.findUrls("ftp://example.org and maven.apache.org"))
+                .isEmpty();
+    }
+
+    @Test
+    void testGrouping() throws Exception {
+        write(
+                DistCheckSourceReleaseReport.FAILURES_FILENAME,
+                failure("doxia", "missing-file", DIST, "Missing file for doxia in " + DIST),
+                failure("doxia", "missing-file", DIST, " > doxia-2.0.0-source-release.zip.asc <"),
+                failure("doxia", "older-file", DIST, "Different version than 2.0.0 for doxia available in " + DIST),
+                failure("doxia-sitetools", "checksum", null, "Checksum mismatch for " + DIST + "sitetools.zip."));
+        write(
+                CheckSiteArchivesReport.FAILURES_FILENAME,
+                new FailureSink.Failure(null, null, "listing", DIST, "Cannot read listing " + DIST));
+
+        String html = render();
+
+        // one item per artifact, failures grouped by category
+        assertThat(html)
+                .containsSubsequence(
+                        "org.apache.maven.doxia:doxia:2.0.0",
+                        "missing-file:\nMissing file for doxia",
+                        " &gt; doxia-2.0.0-source-release.zip.asc &lt;",
+                        "older-file:\nDifferent version",
+                        "org.apache.maven.doxia:doxia-sitetools:2.0.0",
+                        "checksum:\nChecksum mismatch",
+                        "4 failures for 2 artifacts: {checksum=1, missing-file=2, older-file=1}");
+        // urls of an artifact are de-duplicated
+        assertThat(html.split("href=\"" + DIST + "\"", -1)).hasSize(3);
+        assertThat(html).contains("href=\"" + DIST + "sitetools.zip\"");
+        // site archives listing failures are collected too
+        assertThat(html)
+                .contains("check-site-archives")
+                .contains("Cannot read listing")
+                .contains("1 failures for 1 artifacts: {listing=1}")
+                .doesNotContain("No issue found.");
+    }
+
+    @Test
+    void testTextLog() throws Exception {
+        Files.writeString(
+                tmp.resolve(DistCheckSourceReleaseReport.FAILURES_FILENAME),
+                "Missing file for doxia in " + DIST + "\n > doxia-2.0.0-source-release.zip.asc <\n",
+                StandardCharsets.UTF_8);
+
+        assertThat(render()).contains("2 failures for 1 artifacts: {other=2}");
+    }
+
+    @Test
+    void testNoFailure() throws Exception {
+        assertThat(render()).contains("No issue found.");
+    }
+
+    @Test
+    void testFailOnError() throws Exception {
+        DistCheckErrorsReport report = newReport();
+        report.failOnError = true;
+        assertThat(render(report)).contains("No issue found.");
+
+        write(
+                DistCheckSourceReleaseReport.FAILURES_FILENAME,
+                failure("doxia", "missing-file", DIST, "Missing file for doxia in " + DIST));
+        DistCheckErrorsReport failing = newReport();
+        failing.failOnError = true;
+        assertThatThrownBy(() -> render(failing))
+                .isInstanceOf(MavenReportException.class)
+                .hasMessageEndingWith(
+                        DistCheckSourceReleaseReport.FAILURES_FILENAME + ": Missing file for doxia in " + DIST);
+    }
+
+    private static FailureSink.Failure failure(String artifactId, String category, String url, String message) {
+        return new FailureSink.Failure("org.apache.maven.doxia:" + artifactId, "2.0.0", category, url, message);
+    }
+
+    private void write(String failuresFilename, FailureSink.Failure... failures) throws IOException {
+        try (FailureSink sink = new FailureSink(tmp.resolve(failuresFilename).toFile())) {
+            for (FailureSink.Failure failure : failures) {
+                sink.add(failure);
+            }
+        }
+    }
+
+    private DistCheckErrorsReport newReport() {
+        DistCheckErrorsReport report = new DistCheckErrorsReport();
+        report.failuresDirectory = tmp.toFile();
+        return report;
+    }
+
+    private String render() throws MavenReportException {
+        return render(newReport());
+    }
+
+    private static String render(DistCheckErrorsReport report) throws MavenReportException {
+        StringWriter html = new StringWriter();
+        report.generate(new Xhtml5BaseSink(html), null, Locale.ENGLISH);
+        return html.toString();
+    }
+}
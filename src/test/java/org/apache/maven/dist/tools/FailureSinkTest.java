@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FailureSinkTest {
+    private static final int THREADS = 8;
+
+    private static final int FAILURES = 500;
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void testConcurrentAdd() throws Exception {
+        File logFile = tmp.resolve("check-test.log").toFile();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try (FailureSink sink = new FailureSink(logFile)) {
+            List<CompletableFuture<Void>> writers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String artifact = "org.apache.maven:artifact-" + t;
+                writers.add(CompletableFuture.runAsync(
+                        () -> {
+                            for (int i = 0; i < FAILURES; i++) {
+                                try {
+                                    sink.add(new FailureSink.Failure(
+                                            artifact, "1." + i, "missing-file", null, artifact + " failure " + i));
+                                } catch (Exception e) {
+                                    throw new IllegalStateException(e);
+                                }
+                            }
+                        },
+                        executor));
+            }
+            CompletableFuture.allOf(writers.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // every line complete, none lost
+        List<String> lines = Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8);
+        assertThat(lines).hasSize(THREADS * FAILURES).doesNotHaveDuplicates();
+        assertThat(lines).allMatch(line -> line.matches("org\\.apache\\.maven:artifact-\\d failure \\d+"));
+
+        ObjectMapper mapper = new ObjectMapper();
+        Set<String> messages = new HashSet<>();
+        for (String json : Files.readAllLines(FailureSink.getJsonFile(logFile).toPath(), StandardCharsets.UTF_8)) {
+            FailureSink.Failure failure = mapper.readValue(json, FailureSink.Failure.class);
+            assertThat(failure.message()).startsWith(failure.artifact() + " failure ");
+            messages.add(failure.message());
+        }
+        assertThat(messages).containsExactlyInAnyOrderElementsOf(lines);
+    }
+
+    @Test
+    void testStartFailuresAndCloseReport() throws Exception {
+        FailuresReport report = new FailuresReport(tmp.toFile());
+        File logFile = tmp.resolve(report.getFailuresFilename()).toFile();
+
+        report.addFailure(failure("previous run"));
+        // a new run closes the files of the previous one, and deletes them
+        report.startFailures();
+        assertThat(logFile).doesNotExist();
+        assertThat(FailureSink.getJsonFile(logFile)).doesNotExist();
+
+        report.addFailure(failure("first"));
+        report.addFailure(failure("second"));
+        // rendered: files are flushed and closed
+        report.closeReport();
+        assertThat(Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8)).containsExactly("first", "second");
+        assertThat(Files.readAllLines(FailureSink.getJsonFile(logFile).toPath(), StandardCharsets.UTF_8))
+                .hasSize(2);
+
+        // a failure after close is appended
+        report.addFailure(failure("late"));
+        report.closeReport();
+        assertThat(Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8))
+                .containsExactly("first", "second", "late");
+    }
+
+    private static FailureSink.Failure failure(String message) {
+        return new FailureSink.Failure("org.apache.maven:maven-core", "4.0.0", "test", null, message);
+    }
+
+    /**
+     * Report that only writes failures.
+     */
+    private static class FailuresReport extends AbstractDistCheckReport {
+        FailuresReport(File failuresDirectory) {
+            this.failuresDirectory = failuresDirectory;
+        }
+
+        @Override
+        protected boolean isIndexPageCheck() {
+            return false;
+        }
+
+        @Override
+        protected void checkArtifact(ConfigurationLineInfo request, String repoBase) {}
+
+        @Override
+        protected String getFailuresFilename() {
+            return "check-failures.log";
+        }
+
+        @Override
+        public String getName(Locale locale) {
+            return "failures";
+        }
+
+        @Override
+        public String getDescription(Locale locale) {
+            return "failures";
+        }
+
+        @Override
+        protected void executeReport(Locale locale) {}
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.jsoup.HttpStatusException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.notFound;
+import static com.github.tomakehurst.wiremock.client.WireMock.reset;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@WireMockTest
+class HttpArchiveTest {
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(HttpArchive.RECORD_PROPERTY);
+        System.clearProperty(HttpArchive.REPLAY_PROPERTY);
+        HttpArchive.clear();
+    }
+
+    @Test
+    void testRecordReplay(WireMockRuntimeInfo wireMockRuntimeInfo, @TempDir Path archive) throws Exception {
+        String base = wireMockRuntimeInfo.getHttpBaseUrl();
+        stubFor(get("/KEYS")
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse().withHeader("ETag", "\"1\"").withBody("keys")));
+        stubFor(get("/index.html").willReturn(aResponse().withBody("<html><body><p>page</p></body></html>")));
+        stubFor(get("/missing").willReturn(notFound()));
+
+        System.setProperty(HttpArchive.RECORD_PROPERTY, archive.toString());
+        HttpArchive.clear();
+        // conditional headers are not sent while recording, to archive full responses
+        assertThat(new String(HttpRetry.get(base + "/KEYS", Map.of("If-None-Match", "\"1\""))
+                        .body()
+                        .readAllBytes()))
+                .isEqualTo("keys");
+        assertThat(JsoupRetry.get(base + "/index.html").select("p").text()).isEqualTo("page");
+        assertThatThrownBy(() -> HttpRetry.getString(base + "/missing")).isInstanceOf(HttpStatusException.class);
+        verify(getRequestedFor(urlEqualTo("/KEYS")));
+
+        // replay without any server
+        System.clearProperty(HttpArchive.RECORD_PROPERTY);
+        System.setProperty(HttpArchive.REPLAY_PROPERTY, archive.toString());
+        HttpArchive.clear();
+        reset();
+
+        assertThat(HttpRetry.getString(base + "/KEYS")).isEqualTo("keys");
+        assertThat(HttpRetry.head(base + "/KEYS").headers().firstValue("ETag")).hasValue("\"1\"");
+        assertThat(JsoupRetry.get(base + "/index.html").select("p").text()).isEqualTo("page");
+        assertThatThrownBy(() -> HttpRetry.getString(base + "/missing"))
+                .isInstanceOfSatisfying(HttpStatusException.class, e -> assertThat(e.getStatusCode())
+                        .isEqualTo(404));
+        assertThatThrownBy(() -> HttpRetry.getString(base + "/not-recorded"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("not in HTTP archive");
+        verify(0, anyRequestedFor(anyUrl()));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.maven.doxia.sink.impl.Xhtml5BaseSink;
+import org.jsoup.HttpStatusException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.notFound;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@WireMockTest
+class HttpMetricsTest {
+
+    @BeforeEach
+    void clear() {
+        HttpMetrics.clear();
+    }
+
+    @Test
+    void testRequests(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        String base = wireMockRuntimeInfo.getHttpBaseUrl();
+        stubFor(get("/maven-metadata.xml").willReturn(aResponse().withBody("<metadata/>")));
+        stubFor(get("/KEYS").willReturn(aResponse().withStatus(304)));
+        stubFor(get("/missing").willReturn(notFound()));
+
+        // recorded once the body is read
+        try (InputStream in = HttpRetry.get(base + "/maven-metadata.xml").body()) {
+            assertThat(HttpMetrics.getRequests()).isEmpty();
+            in.readAllBytes();
+        }
+        HttpRetry.get(base + "/KEYS", Map.of("If-None-Match", "\"1\"")).body().close();
+        assertThatThrownBy(() -> HttpRetry.getString(base + "/missing")).isInstanceOf(HttpStatusException.class);
+        JsoupRetry.get(base + "/maven-metadata.xml");
+
+        List<HttpMetrics.Request> requests = HttpMetrics.getRequests();
+        assertThat(requests).hasSize(4);
+        assertThat(requests.get(0))
+                .returns("localhost", HttpMetrics.Request::host)
+                .returns("metadata", HttpMetrics.Request::urlClass)
+                .returns(200, HttpMetrics.Request::status)
+                .returns(11L, HttpMetrics.Request::bytes)
+                .returns(null, HttpMetrics.Request::cache);
+        assertThat(requests.get(0).firstByteMillis())
+                .isBetween(0L, requests.get(0).totalMillis());
+        assertThat(requests.get(1))
+                .returns("keys", HttpMetrics.Request::urlClass)
+                .returns(HttpMetrics.CACHE_HIT, HttpMetrics.Request::cache);
+        assertThat(requests.get(2)).returns(404, HttpMetrics.Request::status);
+        assertThat(requests.get(3))
+                .returns("GET", HttpMetrics.Request::method)
+                .returns(11L, HttpMetrics.Request::bytes);
+    }
+
+    @Test
+    void testEvents(WireMockRuntimeInfo wireMockRuntimeInfo, @TempDir Path dir) throws Exception {
+        stubFor(get("/maven-metadata.xml").willReturn(aResponse().withBody("<metadata/>")));
+
+        Path file = dir.resolve("dist-tool.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.apache.maven.dist.tools.HttpRequest");
+            recording.enable("org.apache.maven.dist.tools.Statistics").with("period", "everyChunk");
+            recording.start();
+            HttpRetry.getString(wireMockRuntimeInfo.getHttpBaseUrl() + "/maven-metadata.xml");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("org.apache.maven.dist.tools.HttpRequest"))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e.getString("urlClass")).isEqualTo("metadata");
+                    assertThat(e.getInt("status")).isEqualTo(200);
+                    assertThat(e.getLong("bytes")).isEqualTo(11);
+                });
+        assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("org.apache.maven.dist.tools.Statistics"))
+                .isNotEmpty()
+                .allSatisfy(e -> assertThat(e.getInt("httpInFlight")).isZero());
+    }
+
+    @Test
+    void testPerformanceReport(WireMockRuntimeInfo wireMockRuntimeInfo, @TempDir Path dir) throws Exception {
+        stubFor(get("/maven-metadata.xml").willReturn(aResponse().withBody("<metadata/>")));
+        HttpRetry.getString(wireMockRuntimeInfo.getHttpBaseUrl() + "/maven-metadata.xml");
+        HttpRetry.getString(wireMockRuntimeInfo.getHttpBaseUrl() + "/maven-metadata.xml");
+
+        PerformanceReport report = new PerformanceReport();
+        report.setReportOutputDirectory(dir.toFile());
+        StringWriter html = new StringWriter();
+        report.generate(new Xhtml5BaseSink(html), null, Locale.ENGLISH);
+
+        assertThat(html.toString()).contains("2 requests to 1 hosts");
+        assertThat(Files.readAllLines(dir.resolve("dist-tool-performance.jsonl"), StandardCharsets.UTF_8))
+                .hasSize(2);
+        // written requests are no longer kept in memory
+        assertThat(HttpMetrics.getRequests()).isEmpty();
+    }
+
+    @Test
+    void testClassify() {
+        assertThat(HttpMetrics.classify("https://repo.maven.apache.org/maven2/org/apache/maven/maven-metadata.xml"))
+                .isEqualTo("metadata");
+        assertThat(HttpMetrics.classify("https://dist.apache.org/repos/dist/release/maven/plugins/"))
+                .isEqualTo("listing");
+        assertThat(HttpMetrics.classify("https://maven.apache.org/plugins/")).isEqualTo("site");
+        assertThat(HttpMetrics.classify("https://ci-maven.apache.org/job/Maven/job/maven-box/job/maven-site"))
+                .isEqualTo("jenkins");
+        assertThat(HttpMetrics.classify("https://api.github.com/repos/apache/maven/branches"))
+                .isEqualTo("github");
+        assertThat(HttpMetrics.classify("https://lists.apache.org/api/stats.lua?list=dev"))
+                .isEqualTo("ml-stats");
+    }
+
+    @Test
+    void testPercentile() {
+        long[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertThat(PerformanceReport.Stats.percentile(sorted, 50)).isEqualTo(5);
+        assertThat(PerformanceReport.Stats.percentile(sorted, 90)).isEqualTo(9);
+        assertThat(PerformanceReport.Stats.percentile(sorted, 100)).isEqualTo(10);
+        assertThat(PerformanceReport.Stats.percentile(new long[0], 50)).isEqualTo(-1);
+    }
+}
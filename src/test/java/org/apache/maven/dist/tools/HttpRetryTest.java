@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okXml;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@WireMockTest
+class HttpRetryTest {
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(HttpRetry.ORIGIN_PROPERTY);
+    }
+
+    @Test
+    void testRoute(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(get("/repo.maven.apache.org/maven2/maven-metadata.xml").willReturn(okXml("<metadata/>")));
+        stubFor(get(urlEqualTo("/maven.apache.org/plugins/?a=b%20c"))
+                .willReturn(aResponse().withBody("<html><body><a href='index.html'>link</a></body></html>")));
+
+        System.setProperty(HttpRetry.ORIGIN_PROPERTY, wireMockRuntimeInfo.getHttpBaseUrl());
+        assertThat(HttpRetry.getString("https://repo.maven.apache.org/maven2/maven-metadata.xml"))
+                .isEqualTo("<metadata/>");
+        assertThat(HttpRetry.route("file:///tmp/mirror/")).isEqualTo("file:///tmp/mirror/");
+
+        // documents keep their original url
+        Document doc = JsoupRetry.get("https://maven.apache.org/plugins/?a=b%20c");
+        assertThat(doc.select("a").attr("abs:href")).isEqualTo("https://maven.apache.org/plugins/index.html");
+    }
+
+    @Test
+    void testRoutedPageSize(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        // slightly larger than the buffer jsoup reads first to detect the charset
+        StringBuilder page = new StringBuilder("<html><body><table>");
+        for (int i = 0; page.length() < 5300; i++) {
+            page.append("<tr><td>row ").append(i).append("</td></tr>");
+        }
+        page.append("<tr><td>last</td></tr></table></body></html>");
+        stubFor(get("/maven.apache.org/plugins/").willReturn(aResponse().withBody(page.toString())));
+
+        System.setProperty(HttpRetry.ORIGIN_PROPERTY, wireMockRuntimeInfo.getHttpBaseUrl());
+        Document doc = JsoupRetry.get("https://maven.apache.org/plugins/");
+        assertThat(doc.select("td").last().text()).isEqualTo("last");
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.File;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.doxia.sink.impl.Xhtml5BaseSink;
+import org.apache.maven.reporting.MavenReportException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Incremental mode of a report checking the same artifact on several configuration lines, one per version range.
+ */
+class IncrementalStateTest {
+    private static final String METADATA = "<metadata><groupId>org.apache.maven</groupId>"
+            + "<artifactId>apache-maven</artifactId><versioning><latest>4.0.0</latest><release>4.0.0</release>"
+            + "<versions><version>3.8.8</version><version>3.9.9</version><version>4.0.0</version></versions>"
+            + "<lastUpdated>20261018120000</lastUpdated></versioning></metadata>";
+
+    private static final List<String> CONFIGURATION_LINES = List.of(
+            "/maven-3: org.apache.maven src+bin",
+            "  apache-maven [3.8.0,3.9.0-alpha-1)",
+            "  apache-maven [3.9.0,3.10.0-alpha-1)",
+            "/maven-4: org.apache.maven src+bin",
+            "  apache-maven");
+
+    @TempDir
+    Path tmp;
+
+    private final Map<String, String> fingerprints = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path metadata = tmp.resolve("repo/org/apache/maven/apache-maven/maven-metadata.xml");
+        Files.createDirectories(metadata.getParent());
+        Files.writeString(metadata, METADATA, StandardCharsets.UTF_8);
+
+        fingerprints.put("3.8.8", "a");
+        fingerprints.put("3.9.9", "a");
+        fingerprints.put("4.0.0", "a");
+    }
+
+    @Test
+    void testSkipAndRestore() throws Exception {
+        StubReport first = run();
+        assertThat(first.checked).containsExactly("3.8.8", "3.9.9", "4.0.0");
+        assertThat(first.restored).isEmpty();
+
+        IncrementalState.State state =
+                IncrementalState.load(new File(tmp.toFile(), "cache/check-stub-state.json"), TimeUnit.DAYS.toMillis(1));
+        assertThat(state.entries())
+                .containsOnlyKeys(
+                        "org.apache.maven:apache-maven [3.8.0,3.9.0-alpha-1)",
+                        "org.apache.maven:apache-maven [3.9.0,3.10.0-alpha-1)",
+                        "org.apache.maven:apache-maven");
+
+        StubReport second = run();
+        assertThat(second.checked).isEmpty();
+        // every line restores the result of its own version range, and replays its own failure
+        assertThat(second.restored).containsExactly("3.8.8", "3.9.9", "4.0.0");
+        assertThat(readFailures()).containsExactly("failure of 3.8.8", "failure of 3.9.9", "failure of 4.0.0");
+    }
+
+    @Test
+    void testChangedFingerprint() throws Exception {
+        run();
+
+        fingerprints.put("3.9.9", "b");
+        StubReport second = run();
+        assertThat(second.checked).containsExactly("3.9.9");
+        assertThat(second.restored).containsExactly("3.8.8", "4.0.0");
+        assertThat(readFailures()).containsExactly("failure of 3.8.8", "failure of 3.9.9", "failure of 4.0.0");
+
+        // the new fingerprint is saved: nothing to check on next run
+        StubReport third = run();
+        assertThat(third.checked).isEmpty();
+    }
+
+    @Test
+    void testUnsupported() throws Exception {
+        run(false);
+        StubReport second = run(false);
+
+        assertThat(second.checked).containsExactly("3.8.8", "3.9.9", "4.0.0");
+        assertThat(tmp.resolve("cache/check-stub-state.json")).doesNotExist();
+    }
+
+    private StubReport run() throws Exception {
+        return run(true);
+    }
+
+    private StubReport run(boolean incrementalSupported) throws Exception {
+        StubReport report = new StubReport(tmp.resolve("site").toFile(), fingerprints, incrementalSupported);
+        report.repoBaseUrl = tmp.resolve("repo").toUri().toString();
+        report.failuresDirectory = tmp.resolve("dist-tool").toFile();
+        report.cacheDirectory = tmp.resolve("cache").toFile();
+        report.incremental = true;
+        report.incrementalMaxAge = 1;
+        report.threads = 1;
+        Field field = AbstractDistCheckReport.class.getDeclaredField("configurationLines");
+        field.setAccessible(true);
+        field.set(report, new ArrayList<>(CONFIGURATION_LINES));
+
+        report.generate(new Xhtml5BaseSink(Writer.nullWriter()), null, Locale.ENGLISH);
+        return report;
+    }
+
+    private List<String> readFailures() throws Exception {
+        return Files.readAllLines(tmp.resolve("dist-tool/check-stub.log"), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Report with one failure per checked artifact, and fingerprints by version.
+     */
+    private static class StubReport extends AbstractDistCheckReport {
+        final List<String> checked = new ArrayList<>();
+
+        final List<String> restored = new ArrayList<>();
+
+        private final Map<String, String> fingerprints;
+
+        private final boolean incrementalSupported;
+
+        private final List<ResultRecord> records = new ArrayList<>();
+
+        StubReport(File outputDirectory, Map<String, String> fingerprints, boolean incrementalSupported) {
+            this.outputDirectory = outputDirectory;
+            this.fingerprints = fingerprints;
+            this.incrementalSupported = incrementalSupported;
+        }
+
+        @Override
+        protected boolean isIndexPageCheck() {
+            return false;
+        }
+
+        @Override
+        protected String getFailuresFilename() {
+            return "check-stub.log";
+        }
+
+        @Override
+        public String getName(Locale locale) {
+            return "stub";
+        }
+
+        @Override
+        public String getDescription(Locale locale) {
+            return "stub";
+        }
+
+        @Override
+        protected boolean isIncrementalSupported() {
+            return incrementalSupported;
+        }
+
+        @Override
+        protected String getFingerprint(ConfigurationLineInfo cli, String version) {
+            return fingerprints.get(version);
+        }
+
+        @Override
+        protected boolean restoreResult(ConfigurationLineInfo cli, String version, ResultRecord previous) {
+            assertThat(previous.version()).isEqualTo(version);
+            restored.add(version);
+            records.add(previous);
+            return true;
+        }
+
+        @Override
+        protected void checkArtifact(ConfigurationLineInfo cli, String version) {
+            checked.add(version);
+            String message = "failure of " + version;
+            addErrorLine(cli, version, null, "stub", null, message);
+            records.add(new AbstractCheckResult(cli, version)
+                    .toRecord(getGoal(), List.of(message), Collections.emptyList(), Collections.emptyMap()));
+        }
+
+        @Override
+        protected void executeReport(Locale locale) throws MavenReportException {
+            prepareReportData();
+            startRender();
+            writeResults(records);
+        }
+    }
+}
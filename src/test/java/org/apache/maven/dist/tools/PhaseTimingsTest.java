@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhaseTimingsTest {
+
+    @Test
+    void testSlowest() {
+        PhaseTimings timings = new PhaseTimings("check-site");
+        timings.add(PhaseTimings.VERSION, "g:fast", TimeUnit.MILLISECONDS.toNanos(5));
+        timings.add(PhaseTimings.CHECK, "g:fast", TimeUnit.MILLISECONDS.toNanos(10));
+        timings.add(PhaseTimings.VERSION, "g:slow", TimeUnit.MILLISECONDS.toNanos(5));
+        timings.add(PhaseTimings.CHECK, "g:slow", TimeUnit.MILLISECONDS.toNanos(200));
+        timings.add(PhaseTimings.VERSION, "g:medium", TimeUnit.MILLISECONDS.toNanos(50));
+        timings.add(PhaseTimings.RENDER, null, TimeUnit.MILLISECONDS.toNanos(30));
+
+        assertThat(timings.getSlowest(2)).containsExactly("g:slow", "g:medium");
+        assertThat(timings.getDetails("g:slow"))
+                .containsEntry("versionMillis", "5")
+                .containsEntry("checkMillis", "200");
+        assertThat(timings.getDetails("g:unknown")).isEmpty();
+    }
+
+    @Test
+    void testConcurrent() throws InterruptedException {
+        PhaseTimings timings = new PhaseTimings("check-site");
+        timings.add(PhaseTimings.CHECK, "g:a", TimeUnit.MILLISECONDS.toNanos(5));
+
+        PhaseTimings.Phase phase = timings.startConcurrent(PhaseTimings.CHECK, "g:a");
+        Thread.sleep(20);
+        phase.end();
+
+        // added to the artifact, but not to the report total which counts the wait instead
+        assertThat(Long.parseLong(timings.getDetails("g:a").get("checkMillis"))).isGreaterThanOrEqualTo(25);
+        assertThat(timings.getMillis(PhaseTimings.CHECK)).isEqualTo(5);
+    }
+}
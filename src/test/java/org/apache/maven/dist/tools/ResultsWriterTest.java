@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultsWriterTest {
+
+    @Test
+    void testWriteJsonLinesAndCsv(@TempDir Path tmp) throws Exception {
+        File directory = tmp.toFile();
+        List<ResultRecord> records = List.of(
+                new ResultRecord(
+                        "check-site",
+                        "org.apache.maven.plugins",
+                        "maven-site-plugin",
+                        "3.21.0",
+                        ResultRecord.Status.WARNING,
+                        List.of("artifact version not found"),
+                        Map.of("url", "https://maven.apache.org/plugins/maven-site-plugin/")),
+                new ResultRecord(
+                        "list-master-jobs",
+                        null,
+                        "maven-resolver",
+                        null,
+                        ResultRecord.Status.ERROR,
+                        List.of("a, \"quoted\" issue"),
+                        Collections.emptyMap()));
+
+        ResultsWriter.write(directory, "dist-tool-check-site", records);
+
+        List<String> jsonl = Files.readAllLines(tmp.resolve("dist-tool-check-site.jsonl"), StandardCharsets.UTF_8);
+        assertThat(jsonl).hasSize(2);
+        JsonNode first = new ObjectMapper().readTree(jsonl.get(0));
+        assertThat(first.get("artifactId").asText()).isEqualTo("maven-site-plugin");
+        assertThat(first.get("status").asText()).isEqualTo("WARNING");
+        assertThat(first.get("details").get("url").asText())
+                .isEqualTo("https://maven.apache.org/plugins/maven-site-plugin/");
+
+        List<String> csv = Files.readAllLines(tmp.resolve("dist-tool-check-site.csv"), StandardCharsets.UTF_8);
+        assertThat(csv)
+                .containsExactly(
+                        "report,groupId,artifactId,version,status,issues,details",
+                        "check-site,org.apache.maven.plugins,maven-site-plugin,3.21.0,WARNING,artifact version not found,"
+                                + "url=https://maven.apache.org/plugins/maven-site-plugin/",
+                        "list-master-jobs,,maven-resolver,,ERROR,\"a, \"\"quoted\"\" issue\",");
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.archives;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@WireMockTest
+class SiteArchiveTest {
+    private static final String ROOT = "https://svn.apache.org/repos/asf/maven/website/components/plugins-archives/";
+
+    @Test
+    void testGroupByMinor() {
+        List<SiteArchive> archives = Stream.of(
+                        "maven-site-plugin-3.12.0",
+                        "maven-site-plugin-3.12.1",
+                        "maven-site-plugin-3.9.1",
+                        "maven-site-plugin-LATEST",
+                        "surefire-3.0.0-M5",
+                        "surefire-3.0.0",
+                        "surefire-3.1.2")
+                .map(d -> SiteArchive.parse(ROOT, d))
+                .filter(a -> a != null)
+                .collect(Collectors.toList());
+        assertThat(archives).hasSize(6);
+
+        List<SiteArchive.Minor> minors = SiteArchive.groupByMinor(archives);
+        assertThat(minors)
+                .extracting(SiteArchive.Minor::name)
+                .containsExactly("maven-site-plugin-3.12", "maven-site-plugin-3.9", "surefire-3.0", "surefire-3.1");
+        assertThat(minors.get(0).kept().directory()).isEqualTo("maven-site-plugin-3.12.1");
+        assertThat(minors.get(0).superseded())
+                .extracting(SiteArchive::directory)
+                .containsExactly("maven-site-plugin-3.12.0");
+        assertThat(minors.get(2).kept().directory()).isEqualTo("surefire-3.0.0");
+        assertThat(minors.get(2).superseded())
+                .extracting(SiteArchive::getUrl)
+                .containsExactly(ROOT + "surefire-3.0.0-M5/");
+        assertThat(minors.get(3).superseded()).isEmpty();
+    }
+
+    @Test
+    void testIncrementalListing(WireMockRuntimeInfo wireMockRuntimeInfo, @TempDir File dir) throws Exception {
+        String url = wireMockRuntimeInfo.getHttpBaseUrl() + "/plugins-archives/";
+        String dropped = wireMockRuntimeInfo.getHttpBaseUrl() + "/doxia-archives/";
+        String etag = "W/\"1912345//maven/website/components/plugins-archives\"";
+        stubFor(get("/plugins-archives/")
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse()
+                        .withHeader("ETag", etag)
+                        .withBody("<html><body><h2>asf - Revision 1912400: /plugins-archives</h2><ul>"
+                                + "<li><a href=\"../\">..</a></li>"
+                                + "<li><a href=\"maven-site-plugin-3.12.0/\">maven-site-plugin-3.12.0/</a></li>"
+                                + "<li><a href=\"maven-site-plugin-3.12.1/\">maven-site-plugin-3.12.1/</a></li>"
+                                + "<li><a href=\"index.html\">index.html</a></li>"
+                                + "</ul></body></html>")));
+        stubFor(get("/plugins-archives/")
+                .withHeader("If-None-Match", equalTo(etag))
+                .willReturn(aResponse().withStatus(304)));
+        stubFor(get("/doxia-archives/")
+                .willReturn(aResponse()
+                        .withHeader("ETag", "W/\"1912345//maven/website/components/doxia-archives\"")
+                        .withBody("<html><body><ul><li><a href=\"doxia-2.0.0/\">doxia-2.0.0/</a></li>"
+                                + "</ul></body></html>")));
+
+        File file = new File(dir, "listings.json");
+        ListingSnapshot first = ListingSnapshot.load(file);
+        assertThat(first.list(url)).containsExactly("maven-site-plugin-3.12.0", "maven-site-plugin-3.12.1");
+        assertThat(first.list(dropped)).containsExactly("doxia-2.0.0");
+        assertThat(first.getUnchanged()).isZero();
+        first.save();
+        assertThat(readSnapshot(file)).containsOnlyKeys(url, dropped);
+
+        // not modified: the cached listing is reused
+        ListingSnapshot second = ListingSnapshot.load(file);
+        assertThat(second.list(url)).containsExactly("maven-site-plugin-3.12.0", "maven-site-plugin-3.12.1");
+        verify(getRequestedFor(urlEqualTo("/plugins-archives/")).withHeader("If-None-Match", equalTo(etag)));
+        assertThat(second.getUnchanged()).isEqualTo(1);
+        assertThat(second.getListed()).isEqualTo(1);
+
+        // a directory not listed any more is pruned, the reused listing is kept with its ETag
+        second.save();
+        Map<String, ListingSnapshot.Listing> saved = readSnapshot(file);
+        assertThat(saved).containsOnlyKeys(url);
+        assertThat(saved.get(url).etag()).isEqualTo(etag);
+        assertThat(saved.get(url).directories())
+                .containsExactly("maven-site-plugin-3.12.0", "maven-site-plugin-3.12.1");
+    }
+
+    private static Map<String, ListingSnapshot.Listing> readSnapshot(File file) throws IOException {
+        return new ObjectMapper().readValue(file, new TypeReference<Map<String, ListingSnapshot.Listing>>() {});
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.index;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexPageTest {
+
+    private static final String PAGE = "<table>"
+            + "<tr><th><b>Maven Parent POMs</b></th><th></th><th>41</th></tr>"
+            + "<tr><td><a href=\"https://github.com/apache/maven-clean-plugin\" class=\"externalLink\">x</a></td>"
+            + "<td>1.0</td><td>2020-01-01</td></tr>"
+            + "<tr><td><a href=\"/plugins/maven-clean-plugin/\">clean</a></td><td>B</td><td>3.4.0</td>"
+            + "<td>2024-06-14</td></tr>"
+            + "<tr><td><a href=\"/plugins/maven-compiler-plugin/index.html\">compiler</a></td><td>B</td>"
+            + "<td>3.13.0</td><td>2024-03-18</td></tr>"
+            + "<tr><td><a href=\"/plugins/maven-clean-plugin/other.html\">clean again</a></td><td>B</td>"
+            + "<td>0.1</td><td>2000-01-01</td></tr>"
+            + "</table>";
+
+    @Test
+    void testRows() {
+        IndexPage indexPage = new IndexPage("https://maven.apache.org/plugins/", "Plugins", 3, true);
+        IndexPage.Rows rows = indexPage.parse(Jsoup.parse(PAGE, indexPage.url));
+
+        // first link in document order, external links ignored
+        assertThat(rows.find("/maven-clean-plugin/"))
+                .isEqualTo(new IndexPage.Row("/plugins/maven-clean-plugin/", "3.4.0", "2024-06-14"));
+        assertThat(rows.find("/maven-compiler-plugin/").version()).isEqualTo("3.13.0");
+        assertThat(rows.find("/maven-jar-plugin/")).isNull();
+
+        // custom path, not a single segment
+        assertThat(rows.find("clean-plugin/other").version()).isEqualTo("0.1");
+
+        assertThat(rows.findHeader("Maven Parent POMs").version()).isEqualTo("41");
+    }
+}
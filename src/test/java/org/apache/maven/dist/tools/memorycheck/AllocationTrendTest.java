@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.memorycheck;
+
+import java.io.File;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AllocationTrendTest {
+    private static final long MB = 1024 * 1024;
+
+    private static final Instant START = Instant.parse("2024-01-01T03:00:00Z");
+
+    @Test
+    void testParseAllocation() {
+        assertThat(AllocationTrend.parseAllocation("2024-01-01T03:04:05.1234567Z [QUICK PERF] Measured heap allocation"
+                        + " (test method thread): 1.57 Giga bytes (1 688 437 416 bytes)\n"))
+                .isEqualTo(1_688_437_416L);
+        assertThat(AllocationTrend.parseAllocation("Expected heap allocation (test method thread) to be less than"
+                        + " 3 Giga bytes but is 3.5 Giga bytes"))
+                .isEqualTo(3_758_096_384L);
+        assertThat(AllocationTrend.parseAllocation("[INFO] BUILD SUCCESS")).isEqualTo(-1);
+    }
+
+    @Test
+    void testRegressionOverRollingMedian(@TempDir File dir) throws Exception {
+        AllocationTrend trend = AllocationTrend.load(new File(dir, "allocations.csv"));
+        long[] allocations = {100, 104, 98, 101, 99, 103, 100, 120, 121};
+        for (int i = 0; i < allocations.length; i++) {
+            trend.add(new AllocationTrend.Point(
+                    i, START.plus(i, ChronoUnit.DAYS), allocations[i] * MB, "https://github.com/job/" + i));
+        }
+
+        List<AllocationTrend.Analysis> analysis = trend.analyze(5, 3, 10);
+        assertThat(analysis)
+                .extracting(AllocationTrend.Analysis::regression)
+                .containsExactly(false, false, false, false, false, false, false, true, true);
+        assertThat(analysis.get(1).median()).isEqualTo(-1);
+        assertThat(analysis.get(7).median()).isEqualTo(100 * MB);
+        assertThat(analysis.get(7).getChangePercent()).isEqualTo(20.0);
+        assertThat(analysis.get(7).runs()).isEqualTo(5);
+        assertThat(analysis.get(2).runs()).isEqualTo(2);
+
+        // not flagged until enough previous runs: 104 is 4% over the single first run
+        assertThat(trend.analyze(2, 2, 3))
+                .extracting(AllocationTrend.Analysis::regression)
+                .startsWith(false, false);
+        assertThat(trend.analyze(2, 1, 3).get(1).regression()).isTrue();
+
+        // the time series survives a reload
+        trend.save();
+        AllocationTrend reloaded = AllocationTrend.load(trend.getFile());
+        assertThat(reloaded.getPoints()).isEqualTo(trend.getPoints());
+        assertThat(AllocationChart.toSvg(reloaded.analyze(5, 3, 10)))
+                .startsWith("<svg")
+                .contains("fill=\"red\"");
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.memorycheck;
+
+import java.io.File;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@WireMockTest
+class GitHubApiTest {
+    private static final String RUNS = "repos/quick-perf/maven-test-bench/actions/workflows/42/runs?per_page=10";
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("dist-tool.http.origin");
+    }
+
+    @Test
+    void testConditionalRequests(WireMockRuntimeInfo wireMockRuntimeInfo, @TempDir File dir) throws Exception {
+        stubFor(get(urlEqualTo("/api.github.com/" + RUNS))
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse().withHeader("ETag", "W/\"abc\"").withBody("{\"workflow_runs\":[{\"id\":1}]}")));
+        stubFor(get(urlEqualTo("/api.github.com/" + RUNS))
+                .withHeader("If-None-Match", equalTo("W/\"abc\""))
+                .willReturn(aResponse().withStatus(304)));
+        System.setProperty("dist-tool.http.origin", wireMockRuntimeInfo.getHttpBaseUrl());
+
+        File cacheFile = new File(dir, "github-api-cache.json");
+        GitHubApi first = new GitHubApi(cacheFile, null);
+        assertThat(first.get(RUNS).path("workflow_runs").get(0).path("id").asInt())
+                .isEqualTo(1);
+        assertThat(first.getNotModified()).isZero();
+        first.save();
+
+        GitHubApi second = new GitHubApi(cacheFile, null);
+        assertThat(second.get(RUNS).path("workflow_runs").get(0).path("id").asInt())
+                .isEqualTo(1);
+        assertThat(second.getNotModified()).isEqualTo(1);
+        assertThat(second.getRequests()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.pgp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bouncycastle.bcpg.ArmoredOutputStream;
+import org.bouncycastle.openpgp.PGPPublicKey;
+import org.bouncycastle.openpgp.PGPPublicKeyRing;
+import org.bouncycastle.openpgp.PGPUtil;
+import org.bouncycastle.openpgp.bc.BcPGPPublicKeyRingCollection;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysDiffTest {
+    private static final String END = "-----END PGP PUBLIC KEY BLOCK-----";
+
+    @Test
+    void testCompare() throws Exception {
+        List<String> blocks = readBlocks();
+        assertThat(blocks).hasSize(3);
+
+        KeysIndex reference = load(blocks.get(0) + blocks.get(1));
+        // one key inserted before the others: reported once, not as a shift of every following key
+        KeysIndex other = load(blocks.get(2) + withoutUserId(blocks.get(0)) + blocks.get(1));
+
+        KeysDiff diff = KeysDiff.compare(reference, other);
+        assertThat(diff.added()).hasSize(1);
+        assertThat(diff.removed()).isEmpty();
+        assertThat(diff.changed())
+                .singleElement()
+                .returns(reference.getKeyRings().keySet().iterator().next(), KeysIndex.KeyRing::fingerprint);
+
+        KeysDiff reverse = KeysDiff.compare(other, reference);
+        assertThat(reverse.removed()).isEqualTo(diff.added());
+        assertThat(KeysDiff.compare(reference, reference).isEmpty()).isTrue();
+    }
+
+    @Test
+    void testParseErrors() throws Exception {
+        List<String> blocks = readBlocks();
+        String valid = blocks.get(0);
+        String corrupt = blocks.get(1).replaceFirst("\n([A-Za-z0-9+/]{20})", "\n!!!!");
+        String truncated = blocks.get(2).substring(0, blocks.get(2).indexOf(END));
+
+        KeysIndex keys = load(valid + corrupt + truncated);
+        assertThat(keys.getKeyRings()).hasSize(1);
+        assertThat(keys.getParseErrors()).hasSize(2);
+        assertThat(keys.getParseErrors().get(1)).endsWith("key block truncated by end of file");
+        assertThat(load(valid).getParseErrors()).isEmpty();
+    }
+
+    private static List<String> readBlocks() throws IOException {
+        String keys;
+        try (InputStream in = KeysDiffTest.class.getResourceAsStream("KEYS")) {
+            keys = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+        }
+        List<String> blocks = new ArrayList<>();
+        int start = 0;
+        int end;
+        while ((end = keys.indexOf(END, start)) >= 0) {
+            blocks.add(keys.substring(start, end + END.length()) + '\n');
+            start = end + END.length();
+        }
+        return blocks;
+    }
+
+    private static KeysIndex load(String keys) throws IOException {
+        return KeysIndex.load(new ByteArrayInputStream(keys.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Get the same key, with different content.
+     */
+    private static String withoutUserId(String block) throws Exception {
+        String armored = block.substring(block.indexOf("-----BEGIN"));
+        PGPPublicKeyRing ring;
+        try (InputStream in =
+                PGPUtil.getDecoderStream(new ByteArrayInputStream(armored.getBytes(StandardCharsets.US_ASCII)))) {
+            ring = new BcPGPPublicKeyRingCollection(in).getKeyRings().next();
+        }
+        PGPPublicKey primary = ring.getPublicKey();
+        String userId = primary.getUserIDs().next();
+        PGPPublicKeyRing changed =
+                PGPPublicKeyRing.insertPublicKey(ring, PGPPublicKey.removeCertification(primary, userId));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ArmoredOutputStream armor = new ArmoredOutputStream(out)) {
+            changed.encode(armor);
+        }
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+}
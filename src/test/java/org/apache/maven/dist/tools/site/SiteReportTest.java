@@ -18,13 +18,22 @@
  */
 package org.apache.maven.dist.tools.site;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.apache.commons.io.input.BoundedInputStream;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -32,11 +41,34 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  */
 class SiteReportTest {
 
+    private Document parse(String resource) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream(resource)) {
+            return Jsoup.parse(in, "UTF-8", "https://maven.apache.org/archetype/");
+        }
+    }
+
     private String readDocument(String resource) throws IOException {
+        return CheckSiteResult.extractComment(parse(resource));
+    }
+
+    private Map<String, Boolean> checkVersion(String resource, String version) throws IOException {
+        Document doc = parse(resource);
+        List<HTMLChecker> checkers = HTMLCheckerFactory.getCheckers();
+        CheckSiteResult result = new CheckSiteResult(null, version);
+        result.setUrl("https://maven.apache.org/archetype/");
         try (InputStream in = getClass().getResourceAsStream(resource)) {
-            Document doc = Jsoup.parse(in, "UTF-8", "https://maven.apache.org/archetype/");
-            return CheckSiteResult.extractComment(doc);
+            result.probe(in, StandardCharsets.UTF_8, new VersionMarkers(checkers));
         }
+
+        Map<String, Boolean> found = new HashMap<>();
+        for (HTMLChecker checker : checkers) {
+            // single streamed traversal gives same result as one selection per checker on the full document
+            assertEquals(
+                    checker.isDisplayedArtifactVersionOk(doc, version),
+                    result.getCheckMap().get(checker));
+            found.put(checker.getName(), result.getCheckMap().get(checker));
+        }
+        return found;
     }
 
     /**
@@ -60,4 +92,73 @@ class SiteReportTest {
         String comment = readDocument("stylus-right.html");
         assertTrue(comment.contains("Stylus"));
     }
+
+    @Test
+    public void testDisplayedVersion() throws IOException {
+        assertEquals(
+                Map.of("Fluido", true, "Stylus right side", false, "Stylus left side", false),
+                checkVersion("fluido.html", "3.2.1"));
+        assertEquals(
+                Map.of("Fluido", false, "Stylus right side", true, "Stylus left side", false),
+                checkVersion("stylus-right.html", "1.0"));
+        assertEquals(
+                Map.of("Fluido", false, "Stylus right side", false, "Stylus left side", false),
+                checkVersion("stylus-right.html", "2.0"));
+    }
+
+    @Test
+    public void testCheckersOrder() {
+        List<HTMLChecker> reversed = new ArrayList<>(HTMLCheckerFactory.getCheckers());
+        Collections.reverse(reversed);
+        assertEquals(
+                List.of("Fluido", "Stylus left side", "Stylus right side"),
+                HTMLCheckerFactory.getCheckers(reversed).stream()
+                        .map(HTMLChecker::getName)
+                        .toList());
+    }
+
+    @Test
+    public void testProbe() throws IOException {
+        List<HTMLChecker> checkers = HTMLCheckerFactory.getCheckers();
+        CheckSiteResult result = new CheckSiteResult(null, "3.2.1");
+        result.setUrl("https://maven.apache.org/archetype/");
+        long length;
+        BoundedInputStream counting;
+        try (InputStream in = getClass().getResourceAsStream("fluido.html")) {
+            byte[] page = in.readAllBytes();
+            length = page.length;
+            counting = BoundedInputStream.builder()
+                    .setInputStream(new ByteArrayInputStream(page))
+                    .get();
+            result.probe(counting, StandardCharsets.UTF_8, new VersionMarkers(checkers));
+        }
+        assertEquals(checkVersion("fluido.html", "3.2.1"), names(result));
+        // Fluido skin detected from the comment: Stylus markers are not waited for
+        assertTrue(counting.getCount() < length, counting.getCount() + " bytes read of " + length);
+
+        // Stylus skin: both sides are checked
+        CheckSiteResult stylus = new CheckSiteResult(null, "1.0");
+        stylus.setUrl("https://maven.apache.org/archetype/");
+        try (InputStream in = getClass().getResourceAsStream("stylus-right.html")) {
+            stylus.probe(in, StandardCharsets.UTF_8, new VersionMarkers(checkers));
+        }
+        assertEquals(checkVersion("stylus-right.html", "1.0"), names(stylus));
+
+        // truncated before the version marker: skin still found, version not displayed
+        CheckSiteResult truncated = new CheckSiteResult(null, "3.2.1");
+        truncated.setUrl("https://maven.apache.org/archetype/");
+        try (InputStream in = getClass().getResourceAsStream("fluido.html")) {
+            truncated.probe(
+                    new ByteArrayInputStream(in.readNBytes(4096)),
+                    StandardCharsets.UTF_8,
+                    new VersionMarkers(checkers));
+        }
+        assertEquals(Map.of("Fluido", false, "Stylus right side", false, "Stylus left side", false), names(truncated));
+    }
+
+    private static Map<String, Boolean> names(CheckSiteResult result) {
+        Map<String, Boolean> found = new HashMap<>();
+        result.getCheckMap().forEach((checker, ok) -> found.put(checker.getName(), ok));
+        return found;
+    }
 }
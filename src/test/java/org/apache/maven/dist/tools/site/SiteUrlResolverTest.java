@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.site;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.apache.maven.dist.tools.ConfigurationLineInfo;
+import org.junit.jupiter.api.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okXml;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@WireMockTest
+class SiteUrlResolverTest {
+
+    private static final String PARENT = "/org/apache/maven/plugins/maven-plugins/41/maven-plugins-41.pom";
+
+    @Test
+    void testUrlFromParents(WireMockRuntimeInfo wireMockRuntimeInfo) throws Exception {
+        stubFor(get(PARENT)
+                .willReturn(okXml("<project child.project.url.inherit.append.path=\"false\">"
+                        + "<!-- comment --><parent><groupId>org.apache.maven</groupId>"
+                        + "<artifactId>maven-parent</artifactId><version>41</version><relativePath/></parent>"
+                        + "<groupId>org.apache.maven.plugins</groupId><artifactId>maven-plugins</artifactId>"
+                        + "<url>https://maven.apache.org/plugins/${project.artifactId}/${site.suffix}</url>"
+                        + "<properties><site.suffix>index.html</site.suffix></properties>"
+                        + "<build><plugins><plugin><url>ignored</url></plugin></plugins></build></project>")));
+        stubPlugin("maven-a-plugin");
+        stubPlugin("maven-b-plugin");
+
+        SiteUrlResolver resolver = new SiteUrlResolver(wireMockRuntimeInfo.getHttpBaseUrl() + "/");
+        assertThat(resolver.resolve(plugin("maven-a-plugin"), "1.0"))
+                .isEqualTo("https://maven.apache.org/plugins/maven-a-plugin/index.html");
+        assertThat(resolver.resolve(plugin("maven-b-plugin"), "1.0"))
+                .isEqualTo("https://maven.apache.org/plugins/maven-b-plugin/index.html");
+
+        // the parent is parsed once
+        verify(1, getRequestedFor(urlEqualTo(PARENT)));
+    }
+
+    @Test
+    void testAppendPath() {
+        assertThat(SiteUrlResolver.appendPath("https://maven.apache.org/doxia/", "doxia-core"))
+                .isEqualTo("https://maven.apache.org/doxia/doxia-core/");
+        assertThat(SiteUrlResolver.appendPath("https://maven.apache.org/doxia", "doxia-core"))
+                .isEqualTo("https://maven.apache.org/doxia/doxia-core");
+    }
+
+    private static void stubPlugin(String artifactId) {
+        stubFor(get("/org/apache/maven/plugins/" + artifactId + "/1.0/" + artifactId + "-1.0.pom")
+                .willReturn(okXml("<?xml version=\"1.0\"?><project><modelVersion>4.0.0</modelVersion>"
+                        + "<parent><groupId>org.apache.maven.plugins</groupId><artifactId>maven-plugins</artifactId>"
+                        + "<version>41</version></parent><artifactId>" + artifactId + "</artifactId>"
+                        + "<version>1.0</version></project>")));
+    }
+
+    private static ConfigurationLineInfo plugin(String artifactId) {
+        return new ConfigurationLineInfo(new String[] {"/plugins", "org.apache.maven.plugins:" + artifactId});
+    }
+}
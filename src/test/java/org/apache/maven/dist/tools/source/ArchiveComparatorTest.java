@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.source;
+
+import java.nio.file.Path;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.head;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@WireMockTest
+class ArchiveComparatorTest {
+
+    private static final String CENTRAL = "/central/doxia-1.4-source-release.zip";
+
+    private static final String DIST = "/dist/doxia-1.4-source-release.zip";
+
+    private static final String SHA512_ABC = "ddaf35a193617abacc417349ae20413112e6fa4e89a97ea20a9eeee64b55d39a"
+            + "2192992a274fc1a836ba3c23a3feebbd454d4423643ce80e2a9ac94fa54ca49f";
+
+    @Test
+    void testDifferentContentLength(WireMockRuntimeInfo wm, @TempDir Path tmp) throws Exception {
+        stubFor(head(urlEqualTo(CENTRAL)).willReturn(aResponse().withHeader("Content-Length", "3")));
+        stubFor(head(urlEqualTo(DIST)).willReturn(aResponse().withHeader("Content-Length", "4")));
+
+        ArchiveComparator.Comparison comparison =
+                newComparator(tmp).compare(wm.getHttpBaseUrl() + CENTRAL, null, wm.getHttpBaseUrl() + DIST, null);
+
+        assertThat(comparison.same()).isFalse();
+        assertThat(comparison.method()).isEqualTo(ArchiveComparator.Method.CONTENT_LENGTH);
+        verify(0, getRequestedFor(urlEqualTo(CENTRAL)));
+    }
+
+    @Test
+    void testSameETag(WireMockRuntimeInfo wm, @TempDir Path tmp) throws Exception {
+        stubFor(head(urlEqualTo(CENTRAL)).willReturn(aResponse().withHeader("ETag", "\"abc\"")));
+        stubFor(head(urlEqualTo(DIST)).willReturn(aResponse().withHeader("ETag", "\"abc\"")));
+
+        ArchiveComparator.Comparison comparison =
+                newComparator(tmp).compare(wm.getHttpBaseUrl() + CENTRAL, null, wm.getHttpBaseUrl() + DIST, null);
+
+        assertThat(comparison.same()).isTrue();
+        assertThat(comparison.method()).isEqualTo(ArchiveComparator.Method.ETAG);
+        verify(0, getRequestedFor(urlEqualTo(CENTRAL)));
+        verify(0, getRequestedFor(urlEqualTo(DIST)));
+    }
+
+    @Test
+    void testSameETagOtherServer(WireMockRuntimeInfo wm, @TempDir Path tmp) throws Exception {
+        stubFor(head(urlEqualTo(CENTRAL)).willReturn(aResponse().withHeader("ETag", "\"abc\"")));
+        stubFor(head(urlEqualTo(DIST)).willReturn(aResponse().withHeader("ETag", "\"abc\"")));
+        stubFor(get(CENTRAL).willReturn(aResponse().withBody("abc")));
+        stubFor(get(DIST).willReturn(aResponse().withBody("abd")));
+
+        // ETags of different servers are not comparable
+        ArchiveComparator.Comparison comparison = newComparator(tmp)
+                .compare(wm.getHttpBaseUrl() + CENTRAL, null, "http://127.0.0.1:" + wm.getHttpPort() + DIST, null);
+
+        assertThat(comparison.same()).isFalse();
+        assertThat(comparison.method()).isEqualTo(ArchiveComparator.Method.DOWNLOADED_SHA512);
+    }
+
+    @Test
+    void testSamePublishedSha512(WireMockRuntimeInfo wm, @TempDir Path tmp) throws Exception {
+        stubFor(head(urlEqualTo(CENTRAL)).willReturn(aResponse().withHeader("Content-Length", "3")));
+        stubFor(head(urlEqualTo(DIST)).willReturn(aResponse().withHeader("Content-Length", "3")));
+        stubFor(get(CENTRAL + ".sha512").willReturn(aResponse().withBody(SHA512_ABC)));
+        stubFor(get(DIST + ".sha512").willReturn(aResponse().withBody(SHA512_ABC + "  doxia-1.4-source-release.zip")));
+
+        ArchiveComparator.Comparison comparison = newComparator(tmp)
+                .compare(
+                        wm.getHttpBaseUrl() + CENTRAL,
+                        wm.getHttpBaseUrl() + CENTRAL + ".sha512",
+                        wm.getHttpBaseUrl() + DIST,
+                        wm.getHttpBaseUrl() + DIST + ".sha512");
+
+        assertThat(comparison.same()).isTrue();
+        assertThat(comparison.method()).isEqualTo(ArchiveComparator.Method.PUBLISHED_SHA512);
+        verify(0, getRequestedFor(urlEqualTo(CENTRAL)));
+        verify(0, getRequestedFor(urlEqualTo(DIST)));
+    }
+
+    @Test
+    void testInconclusiveDownloads(WireMockRuntimeInfo wm, @TempDir Path tmp) throws Exception {
+        stubFor(head(urlEqualTo(CENTRAL)).willReturn(aResponse().withHeader("Content-Length", "3")));
+        stubFor(head(urlEqualTo(DIST)).willReturn(aResponse().withHeader("Content-Length", "3")));
+        stubFor(get(CENTRAL).willReturn(aResponse().withBody("abc")));
+        stubFor(get(DIST).willReturn(aResponse().withBody("abd")));
+
+        ArchiveComparator.Comparison comparison =
+                newComparator(tmp).compare(wm.getHttpBaseUrl() + CENTRAL, null, wm.getHttpBaseUrl() + DIST, null);
+
+        assertThat(comparison.same()).isFalse();
+        assertThat(comparison.method()).isEqualTo(ArchiveComparator.Method.DOWNLOADED_SHA512);
+    }
+
+    private static ArchiveComparator newComparator(Path tmp) throws Exception {
+        return new ArchiveComparator(
+                DigestCache.load(tmp.resolve("digests.properties").toFile()));
+    }
+}
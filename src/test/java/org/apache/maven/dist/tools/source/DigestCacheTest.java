@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.source;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@WireMockTest
+class DigestCacheTest {
+
+    private static final String ARCHIVE = "/doxia-1.4-source-release.zip";
+
+    @Test
+    void testDigestCachedByETag(WireMockRuntimeInfo wireMockRuntimeInfo, @TempDir Path tmp) throws Exception {
+        stubFor(get(ARCHIVE)
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("ETag", "\"v 1\"")
+                        .withBody("abc")));
+        stubFor(get(ARCHIVE)
+                .withHeader("If-None-Match", equalTo("\"v 1\""))
+                .willReturn(aResponse().withStatus(304)));
+
+        String url = wireMockRuntimeInfo.getHttpBaseUrl() + ARCHIVE;
+        File file = tmp.resolve("digests.properties").toFile();
+
+        DigestCache cache = DigestCache.load(file);
+        DigestCache.Digests digests = cache.digest(url);
+        assertThat(digests.sha1()).isEqualTo("a9993e364706816aba3e25717850c26c9cd0d89d");
+        assertThat(digests.sha512()).startsWith("ddaf35a193617aba");
+        cache.save();
+
+        // new run: content validated with ETag, not downloaded again
+        DigestCache.Digests cached = DigestCache.load(file).digest(url);
+        assertThat(cached).isEqualTo(digests);
+        verify(2, getRequestedFor(urlEqualTo(ARCHIVE)));
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.dist.tools.source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.dist.tools.ConfigurationLineInfo;
+import org.apache.maven.dist.tools.pgp.KeysIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Source release signed with the keys of the test <code>KEYS</code> file: <code>committer1.asc</code> and
+ * <code>committer2.asc</code> are signatures by keys of that file, <code>unknown.asc</code> by a key missing from it.
+ */
+class SignatureVerifierTest {
+    private static final String ARCHIVE = "maven-foo-1.0-source-release.zip";
+
+    private static final String COMMITTER_1 = "Committer 1 <committer1@apache.org>";
+
+    private static KeysIndex keys;
+
+    @TempDir
+    Path tmp;
+
+    @BeforeAll
+    static void loadKeys() throws IOException {
+        try (InputStream in =
+                SignatureVerifierTest.class.getResourceAsStream("/org/apache/maven/dist/tools/pgp/KEYS")) {
+            keys = KeysIndex.load(in);
+        }
+        assertThat(keys.getKeyRings()).hasSize(3);
+        assertThat(keys.getParseErrors()).isEmpty();
+    }
+
+    @Test
+    void testGoodSignature() throws Exception {
+        CheckSourceReleaseResult result = newResult(listing("central", "committer1.asc"), null);
+
+        verify(result);
+
+        assertThat(result.signatureErrors).isEmpty();
+        assertThat(result.signaturesVerified).isTrue();
+        assertThat(result.signer).isEqualTo(COMMITTER_1);
+    }
+
+    @Test
+    void testBadSignature() throws Exception {
+        DirectoryListing central = listing("central", "committer1.asc");
+        Files.writeString(tmp.resolve("central").resolve(ARCHIVE), "tampered", StandardCharsets.US_ASCII);
+        CheckSourceReleaseResult result = newResult(central, null);
+
+        verify(result);
+
+        assertThat(result.signatureErrors)
+                .singleElement()
+                .asString()
+                .startsWith("Bad PGP signature for " + central.resolve(ARCHIVE));
+        assertThat(result.signer).isNull();
+    }
+
+    @Test
+    void testUnknownKey() throws Exception {
+        CheckSourceReleaseResult result = newResult(listing("central", "unknown.asc"), null);
+
+        verify(result);
+
+        assertThat(result.signatureErrors)
+                .singleElement()
+                .asString()
+                .startsWith("Unknown key ")
+                .endsWith(": not in KEYS");
+        assertThat(result.signaturesVerified).isFalse();
+        assertThat(result.signer).isNull();
+    }
+
+    @Test
+    void testMissingSignature() throws Exception {
+        CheckSourceReleaseResult result = newResult(listing("central", null), null);
+
+        verify(result);
+
+        // missing .asc is reported as a missing file, not as a signature error
+        assertThat(result.signatureErrors).isEmpty();
+        assertThat(result.signaturesVerified).isFalse();
+        assertThat(result.signer).isNull();
+    }
+
+    @Test
+    void testDifferentSigners() throws Exception {
+        CheckSourceReleaseResult result =
+                newResult(listing("central", "committer1.asc"), listing("dist", "committer2.asc"));
+
+        verify(result);
+
+        assertThat(result.signatureErrors)
+                .singleElement()
+                .asString()
+                .startsWith("Different signers: ")
+                .contains("(" + COMMITTER_1 + ") in central")
+                .endsWith("(Committer 2 <committer2@apache.org>) in dist");
+        assertThat(result.signer).isEqualTo(COMMITTER_1);
+    }
+
+    @Test
+    void testSameSigner() throws Exception {
+        CheckSourceReleaseResult result =
+                newResult(listing("central", "committer1.asc"), listing("dist", "committer1.asc"));
+
+        verify(result);
+
+        assertThat(result.signatureErrors).isEmpty();
+        assertThat(result.signer).isEqualTo(COMMITTER_1);
+    }
+
+    private static void verify(CheckSourceReleaseResult result) {
+        new SignatureVerifier(keys, "KEYS").verify(result);
+    }
+
+    private static CheckSourceReleaseResult newResult(DirectoryListing central, DirectoryListing dist) {
+        CheckSourceReleaseResult result = new CheckSourceReleaseResult(
+                new ConfigurationLineInfo(new String[] {"/plugins", "org.apache.maven.plugins:maven-foo"}), "1.0");
+        result.setListings(central, dist);
+        return result;
+    }
+
+    /**
+     * Copy the archive and a signature fixture to a directory.
+     *
+     * @param signature the signature fixture, or <code>null</code> for no <code>.asc</code>
+     */
+    private DirectoryListing listing(String directory, String signature) throws IOException {
+        Path dir = Files.createDirectories(tmp.resolve(directory));
+        List<String> files = new ArrayList<>();
+        copy(ARCHIVE, dir.resolve(ARCHIVE));
+        files.add(ARCHIVE);
+        if (signature != null) {
+            copy(signature, dir.resolve(ARCHIVE + ".asc"));
+            files.add(ARCHIVE + ".asc");
+        }
+        return new DirectoryListing(dir.toUri().toString(), files);
+    }
+
+    private static void copy(String resource, Path target) throws IOException {
+        try (InputStream in = SignatureVerifierTest.class.getResourceAsStream(resource)) {
+            Files.copy(in, target);
+        }
+    }
+}